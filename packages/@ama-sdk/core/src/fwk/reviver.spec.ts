@@ -1,6 +1,7 @@
 import {
   reviveArray,
   reviveDictionarizedArray,
+  reviveLazily,
   reviveMap,
 } from './reviver';
 
@@ -52,4 +53,41 @@ describe('Revivers :', () => {
 
     expect(reviver).toHaveBeenCalledWith('key', dictionary, options);
   });
+
+  it('should reviveLazily revive the property on its first access only', () => {
+    const reviver = jest.fn((value: string) => new Date(value));
+    const data: any = reviveLazily({ date: '2020-01-01', other: 'value' }, 'date', reviver);
+
+    expect(reviver).not.toHaveBeenCalled();
+    expect(Object.keys(data)).toEqual(['date', 'other']);
+    expect(data.date).toEqual(new Date('2020-01-01'));
+    expect(data.date).toBe(data.date);
+    expect(reviver).toHaveBeenCalledTimes(1);
+  });
+
+  it('should reviveLazily not revive an overridden property', () => {
+    const reviver = jest.fn();
+    const data: any = reviveLazily({ date: '2020-01-01' }, 'date', reviver);
+    data.date = 'override';
+
+    expect(data.date).toBe('override');
+    expect(reviver).not.toHaveBeenCalled();
+  });
+
+  it('should reviveLazily ignore the missing properties', () => {
+    const reviver = jest.fn();
+    const data: any = reviveLazily({}, 'date', reviver);
+
+    expect(Object.prototype.hasOwnProperty.call(data, 'date')).toBe(false);
+    expect(reviveLazily(undefined as any, 'date', reviver)).toBeUndefined();
+    expect(reviver).not.toHaveBeenCalled();
+  });
+
+  it('should reviveLazily revive the properties of sealed objects eagerly', () => {
+    const reviver = jest.fn((value: number) => value + 1);
+    const data: any = reviveLazily(Object.seal({ count: 1 }), 'count', reviver);
+
+    expect(reviver).toHaveBeenCalledTimes(1);
+    expect(data.count).toBe(2);
+  });
 });
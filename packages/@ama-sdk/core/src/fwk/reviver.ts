@@ -89,3 +89,36 @@ export function reviveDictionarizedArray<T>(ids: string[], dictionary: any, revi
     return map;
   }, {});
 }
+
+/**
+ * Used by the lazy revivers: defers the revival of a property of the data until its first access.
+ * The property is replaced by a getter which revives its value once and then turns it back into a plain property.
+ * @param data Object owning the property
+ * @param propertyName Name of the property to revive lazily
+ * @param reviver Function reviving the value of the property
+ * @returns The given data
+ */
+export function reviveLazily<T extends { [key: string]: any }>(data: T, propertyName: string, reviver: (value: any) => any): T {
+  if (!data || typeof data !== 'object' || !Object.prototype.hasOwnProperty.call(data, propertyName)) {
+    return data;
+  }
+
+  // an already lazy property is read through its getter, as the eager revivers would revive it again
+  const value = data[propertyName];
+  if (!Object.getOwnPropertyDescriptor(data, propertyName)?.configurable) {
+    (data as { [key: string]: any })[propertyName] = reviver(value);
+    return data;
+  }
+  const define = (newValue: any) => Object.defineProperty(data, propertyName, { value: newValue, writable: true, enumerable: true, configurable: true });
+  Object.defineProperty(data, propertyName, {
+    enumerable: true,
+    configurable: true,
+    get: () => {
+      const revived = reviver(value);
+      define(revived);
+      return revived;
+    },
+    set: (newValue: any) => define(newValue)
+  });
+  return data;
+}
@@ -0,0 +1,150 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+import org.apache.commons.io.FileUtils;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
+import org.openapitools.codegen.model.OperationsMap;
+
+/**
+ * End-to-end generation benchmark on synthetic specifications (see {@link SyntheticSpecFactory}).
+ *
+ * Runs the {@link TypescriptfetchGenerator} through the upstream {@link DefaultGenerator} and reports, for each phase,
+ * the wall time, the allocated bytes and the heap usage:
+ * ```shell
+ * mvn -Pbenchmark test-compile exec:exec@generation -Dgeneration.sizes="1000 5000 20000"
+ * ```
+ */
+public class GenerationBenchmark {
+
+  /**
+   * Codegen recording the time spent in the Otter-specific hooks.
+   */
+  public static class InstrumentedCodegen extends TypescriptfetchGenerator {
+
+    private final PhaseRecorder recorder;
+
+    public InstrumentedCodegen(PhaseRecorder recorder) {
+      super();
+      this.recorder = recorder;
+    }
+
+    @Override
+    public void preprocessOpenAPI(final OpenAPI openAPI) {
+      recorder.record("preprocessOpenAPI", new Callable<Void>() {
+        @Override
+        public Void call() {
+          InstrumentedCodegen.super.preprocessOpenAPI(openAPI);
+          return null;
+        }
+      });
+    }
+
+    @Override
+    public void postProcessModelProperty(final CodegenModel model, final CodegenProperty property) {
+      recorder.record("postProcessModelProperty", new Callable<Void>() {
+        @Override
+        public Void call() {
+          InstrumentedCodegen.super.postProcessModelProperty(model, property);
+          return null;
+        }
+      });
+    }
+
+    @Override
+    public Map<String, ModelsMap> postProcessAllModels(final Map<String, ModelsMap> objs) {
+      return recorder.record("postProcessAllModels", new Callable<Map<String, ModelsMap>>() {
+        @Override
+        public Map<String, ModelsMap> call() {
+          return InstrumentedCodegen.super.postProcessAllModels(objs);
+        }
+      });
+    }
+
+    @Override
+    public OperationsMap postProcessOperationsWithModels(final OperationsMap objs, final List<ModelMap> allModels) {
+      return recorder.record("postProcessOperationsWithModels", new Callable<OperationsMap>() {
+        @Override
+        public OperationsMap call() {
+          return InstrumentedCodegen.super.postProcessOperationsWithModels(objs, allModels);
+        }
+      });
+    }
+  }
+
+  /**
+   * Generator recording the time spent rendering and writing the files.
+   */
+  public static class InstrumentedGenerator extends DefaultGenerator {
+
+    private final PhaseRecorder recorder;
+
+    public InstrumentedGenerator(PhaseRecorder recorder) {
+      super();
+      this.recorder = recorder;
+    }
+
+    @Override
+    protected File processTemplateToFile(final Map<String, Object> templateData, final String templateName, final String outputFilename,
+                                         final boolean shouldGenerate, final String skippedByOption) {
+      return recorder.record("writeFiles", new Callable<File>() {
+        @Override
+        public File call() throws IOException {
+          return InstrumentedGenerator.super.processTemplateToFile(templateData, templateName, outputFilename, shouldGenerate, skippedByOption);
+        }
+      });
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    // Warm up the JIT and the template cache on a small specification
+    run(SyntheticSpecFactory.create(200), new PhaseRecorder());
+
+    for (int size : SyntheticSpecFactory.sizes(args)) {
+      OpenAPI openAPI = SyntheticSpecFactory.create(size);
+      PhaseRecorder recorder = new PhaseRecorder();
+      System.gc();
+      PhaseRecorder.resetPeakHeap();
+      int files = run(openAPI, recorder);
+      System.out.println();
+      System.out.println(String.format(Locale.ROOT, "### %d schemas, %d paths, %d files, peak heap %.1f MB",
+        openAPI.getComponents().getSchemas().size(), openAPI.getPaths().size(), files, PhaseRecorder.peakHeap() / 1048576.0));
+      System.out.print(recorder.report());
+    }
+  }
+
+  private static int run(OpenAPI openAPI, PhaseRecorder recorder) throws IOException {
+    final File outputDir = Files.createTempDirectory("otter-generation-benchmark").toFile();
+    try {
+      GlobalSettings.reset();
+      InstrumentedCodegen codegen = new InstrumentedCodegen(recorder);
+      codegen.setOutputDir(outputDir.getAbsolutePath());
+      final DefaultGenerator generator = new InstrumentedGenerator(recorder);
+      generator.opts(new ClientOptInput().openAPI(openAPI).config(codegen));
+      List<File> files = recorder.record("generate (total)", new Callable<List<File>>() {
+        @Override
+        public List<File> call() {
+          return generator.generate();
+        }
+      });
+      return files.size();
+    } finally {
+      FileUtils.deleteDirectory(outputDir);
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package com.amadeus.codegen.ts;
+
+import java.util.Locale;
+
+/**
+ * Builds realistic fragments for the Mustache lambdas registered by {@link AbstractTypeScriptClientCodegen}.
+ *
+ * Each lambda receives the kind of text it gets in the templates (an identifier, an URL, a parameter list, a whole
+ * generated file...) scaled to the requested size.
+ */
+public final class LambdaFragments {
+
+  /** Fragment sizes exposed to the benchmarks */
+  public enum Size {
+    /** A single model / parameter / line, as in most template calls */
+    small(1),
+    /** A typical API or model file */
+    medium(40),
+    /** The largest files of our biggest SDKs */
+    large(2000);
+
+    private final int units;
+
+    Size(int units) {
+      this.units = units;
+    }
+
+    public int getUnits() {
+      return units;
+    }
+  }
+
+  private LambdaFragments() {}
+
+  /**
+   * Returns a fragment representative of what the lambda registered under the given name receives.
+   *
+   * @param lambdaName the key of the lambda in the codegen additionalProperties
+   * @param size the size of the fragment
+   * @return the fragment to format
+   */
+  public static String forLambda(String lambdaName, Size size) {
+    int units = size.getUnits();
+    switch (lambdaName) {
+      case "camelize":
+      case "uppercaseFirst":
+      case "kebabCase":
+      case "upperSnakeCase":
+      case "plurialize":
+      case "propertyDeclaration":
+      case "propertyAccess":
+        return identifier(units);
+      case "apiFolderName":
+        return identifier(units) + "Api";
+      case "removeBrackets":
+      case "noArrayInType":
+        return identifier(units) + "[]";
+      case "urlParamReplacer":
+      case "urlSerializedParamReplacer":
+      case "tokenizedUrlParamReplacer":
+      case "tokenizedUrlSerializedParamReplacer":
+      case "resourceFromPath":
+      case "areaFromPath":
+      case "removeFowardslash":
+        return path(units);
+      case "noDuplicateParams":
+        return parameters(units);
+      case "trimComma":
+        return parameters(units) + ", \n  \n";
+      case "trimPipe":
+        return unionType(units) + " | \n";
+      case "noDuplicateLine":
+      case "addTabs":
+      case "noBreakLine":
+        return lines(units);
+      case "simpleMath":
+        return arithmetic(units);
+      case "parseRegexp":
+        return regexp(units);
+      case "ignorePatchVersion":
+        return units + ".2.0";
+      case "headerJsonMimeType":
+        return mimeTypes(units);
+      case "noUnusedImport":
+      case "noEmptyImportExport":
+      case "noEmptyImport":
+      case "noEmptyExport":
+      case "noEmptyLines":
+      case "replaceWithEmptyExportIfNeeded":
+      case "transformBodyRequest":
+      default:
+        return typescriptFile(units);
+    }
+  }
+
+  private static String identifier(int units) {
+    StringBuilder sb = new StringBuilder("air");
+    for (int i = 0; i < units; i++) {
+      sb.append("OfferFlightSegment").append(i);
+    }
+    return sb.append("Reference").toString();
+  }
+
+  private static String path(int units) {
+    StringBuilder sb = new StringBuilder("/carts/{cartId}");
+    for (int i = 0; i < units; i++) {
+      sb.append("/travelers-").append(i).append("/{traveler-id").append(i).append('}');
+    }
+    return sb.append("/air-offers").toString();
+  }
+
+  private static String parameters(int units) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < units * 5; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      // one parameter out of five is declared twice (e.g. both as query and path parameter)
+      int id = i % 5 == 4 ? i - 2 : i;
+      sb.append("param").append(id).append(id % 2 == 0 ? ": string" : "?: number[]");
+    }
+    return sb.toString();
+  }
+
+  private static String unionType(int units) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < units * 5; i++) {
+      sb.append("'VALUE_").append(i).append("' | ");
+    }
+    return sb.toString();
+  }
+
+  private static String lines(int units) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < units * 10; i++) {
+      sb.append("   import { Model").append(i % 7).append(" } from '../model-").append(i % 7).append("';  \n");
+      if (i % 3 == 0) {
+        sb.append("\r\n");
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String arithmetic(int units) {
+    StringBuilder sb = new StringBuilder("1");
+    for (int i = 0; i < units; i++) {
+      sb.append(i % 2 == 0 ? " + " : " * ").append(i % 9 + 1);
+    }
+    return sb.toString();
+  }
+
+  private static String regexp(int units) {
+    StringBuilder sb = new StringBuilder("^");
+    for (int i = 0; i < units; i++) {
+      sb.append("[\\\\w-]+\\\\/");
+    }
+    return sb.append("$").toString();
+  }
+
+  private static String mimeTypes(int units) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < units; i++) {
+      sb.append("text/plain; charset=utf-").append(i).append(", application/xml, ");
+    }
+    return sb.append("application/vnd.amadeus+json").toString();
+  }
+
+  /**
+   * Generates an API-like TypeScript file: a block of imports (a third of them unused), empty import/export statements,
+   * blank lines and a body using the imported models.
+   */
+  private static String typescriptFile(int units) {
+    StringBuilder sb = new StringBuilder();
+    int models = units * 3;
+    sb.append("import type { ");
+    for (int i = 0; i < models; i++) {
+      sb.append("Model").append(i).append(", ");
+    }
+    sb.append("} from '../../models/base';\n");
+    for (int i = 0; i < models; i++) {
+      sb.append("import { revive").append("Model").append(i).append(" } from '../../models/base/model-").append(i).append("/model-").append(i).append(".reviver';\n");
+    }
+    sb.append("import { } from '../../models/base/empty';\n");
+    sb.append("import type { } from '../../models/base/empty';\n");
+    sb.append("export { } from './empty';\n\n");
+    sb.append("/**\n * Generated API\n */\n");
+    sb.append("export class ").append("SampleApi").append(" implements Api {\n");
+    for (int i = 0; i < models; i++) {
+      if (i % 3 == 2) {
+        continue;
+      }
+      sb.append("  \n");
+      sb.append("  /** Operation ").append(i).append(" */\n");
+      sb.append("  public async operation").append(i).append("(data: { id: string }): Promise<Model").append(i).append("> {\n");
+      sb.append("    const ret = this.client.processCall<Model").append(i).append(">(url, options, ApiTypes.DEFAULT, SampleApi.apiName, { 200: reviveModel")
+        .append(i).append(" }, '").append(String.format(Locale.ROOT, "operation%d", i)).append("');\n");
+      sb.append("    return ret;\n");
+      sb.append("  }\n");
+    }
+    sb.append("}\n");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,67 @@
+package com.amadeus.codegen.ts;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of every Mustache lambda registered by {@link AbstractTypeScriptClientCodegen}.
+ *
+ * The lambdas are retrieved from the additionalProperties of a {@link TypescriptfetchGenerator} so the benchmark runs
+ * them with the exact configuration used during the generation.
+ * Run with the GC profiler (default of the benchmark profile) to get gc.alloc.rate.norm:
+ * ```shell
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LambdaHelperBenchmark -prof gc"
+ * ```
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LambdaHelperBenchmark {
+
+  @Param({
+    "addTabs", "camelize", "trimComma", "trimPipe", "noBreakLine", "noEmptyImportExport", "noEmptyImport",
+    "noUnusedImport", "noEmptyExport", "noDuplicateParams", "noArrayInType", "noDuplicateLine", "simpleMath",
+    "uppercaseFirst", "kebabCase", "upperSnakeCase", "parseRegexp", "plurialize", "urlParamReplacer",
+    "urlSerializedParamReplacer", "tokenizedUrlParamReplacer", "tokenizedUrlSerializedParamReplacer", "apiFolderName",
+    "removeBrackets", "removeFowardslash", "ignorePatchVersion", "resourceFromPath", "areaFromPath", "noEmptyLines",
+    "replaceWithEmptyExportIfNeeded", "propertyDeclaration", "propertyAccess", "headerJsonMimeType",
+    "transformBodyRequest"
+  })
+  public String lambda;
+
+  @Param({"small", "medium", "large"})
+  public LambdaFragments.Size size;
+
+  private LambdaHelper.CustomLambda customLambda;
+
+  private String fragment;
+
+  @Setup
+  public void setup() {
+    Object registered = new TypescriptfetchGenerator().additionalProperties().get(lambda);
+    if (!(registered instanceof LambdaHelper.CustomLambda)) {
+      throw new IllegalStateException("No lambda registered under the name " + lambda);
+    }
+    customLambda = (LambdaHelper.CustomLambda) registered;
+    fragment = LambdaFragments.forLambda(lambda, size);
+  }
+
+  @Benchmark
+  public String formatFragment() {
+    return customLambda.formatFragment(fragment);
+  }
+}
@@ -0,0 +1,114 @@
+package com.amadeus.codegen.ts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the overwrite decisions of {@link AbstractTypeScriptClientCodegen#shouldOverwrite} over the paths of a large SDK.
+ *
+ * Compares the previous per-call {@code String.matches} loop with the precompiled {@link OverwriteRules}, on first
+ * decision (new rules for each run, as in a generation) and on cached decisions.
+ * ```shell
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="OverwriteRulesBenchmark"
+ * ```
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverwriteRulesBenchmark {
+
+  /** Files generated per model and per API */
+  private static final String[] MODEL_FILES = {"%s.ts", "%s.reviver.ts", "index.ts"};
+
+  private static final String[] API_FILES = {"%s-api.ts", "%s-api.fixture.ts", "%s-api.jasmine.fixture.ts", "%s-api.jest.fixture.ts", "index.ts"};
+
+  @Param({"50000"})
+  public int paths;
+
+  private List<String> overwriteFilepathPatterns;
+
+  private List<String> skipOverwriteFilepathPatterns;
+
+  private List<String> filenames;
+
+  private OverwriteRules cachedRules;
+
+  @Setup
+  public void setup() {
+    TypescriptfetchGenerator generator = new TypescriptfetchGenerator();
+    overwriteFilepathPatterns = generator.overwriteFilepathPatterns;
+    skipOverwriteFilepathPatterns = generator.skipOverwriteFilepathPatterns;
+
+    filenames = new ArrayList<String>(paths);
+    String outputDir = "/workspace/sdk/";
+    for (int i = 0; filenames.size() < paths; i++) {
+      String model = "model" + i;
+      for (String file : MODEL_FILES) {
+        filenames.add(outputDir + "src/models/base/" + model + "/" + String.format(file, model));
+      }
+      String api = "resource" + i;
+      for (String file : API_FILES) {
+        filenames.add(outputDir + "src/api/" + api + "/" + String.format(file, api));
+      }
+    }
+    filenames = filenames.subList(0, paths);
+
+    cachedRules = new OverwriteRules(overwriteFilepathPatterns, skipOverwriteFilepathPatterns);
+    for (String filename : filenames) {
+      cachedRules.getRule(filename);
+    }
+  }
+
+  @Benchmark
+  public int stringMatches() {
+    int forceOverwrite = 0;
+    for (String filename : filenames) {
+      for (String pattern : overwriteFilepathPatterns) {
+        if (filename.matches(pattern)) {
+          forceOverwrite++;
+          break;
+        }
+      }
+    }
+    return forceOverwrite;
+  }
+
+  @Benchmark
+  public int precompiledRules() {
+    OverwriteRules rules = new OverwriteRules(overwriteFilepathPatterns, skipOverwriteFilepathPatterns);
+    int forceOverwrite = 0;
+    for (String filename : filenames) {
+      if (rules.getRule(filename) == OverwriteRules.Rule.FORCE_OVERWRITE) {
+        forceOverwrite++;
+      }
+    }
+    return forceOverwrite;
+  }
+
+  @Benchmark
+  public int cachedRules() {
+    int forceOverwrite = 0;
+    for (String filename : filenames) {
+      if (cachedRules.getRule(filename) == OverwriteRules.Rule.FORCE_OVERWRITE) {
+        forceOverwrite++;
+      }
+    }
+    return forceOverwrite;
+  }
+}
@@ -0,0 +1,98 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+import org.apache.commons.io.FileUtils;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.config.GlobalSettings;
+
+/**
+ * Stress test of the parallel rendering (parallelRendering global property of {@link AbstractTypeScriptClientCodegen}).
+ *
+ * Generates a synthetic specification (see {@link SyntheticSpecFactory}) serially, then several times with many more
+ * rendering threads than processors to maximize the interleaving, and fails if any generated file differs from the
+ * serial generation:
+ * ```shell
+ * mvn -Pbenchmark test-compile exec:exec@parallel-rendering -Dparallel-rendering.args="2000 16 5"
+ * ```
+ * Arguments: size of the specification, number of rendering threads, number of parallel generations.
+ */
+public class ParallelRenderingStressTest {
+
+  public static void main(String[] args) throws IOException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    Map<String, byte[]> expected = generate(size, null);
+    System.out.println("Serial generation: " + expected.size() + " files");
+    int failures = 0;
+    for (int i = 1; i <= iterations; i++) {
+      Map<String, byte[]> actual = generate(size, String.valueOf(threads));
+      List<String> differences = compare(expected, actual);
+      System.out.println("Parallel generation " + i + "/" + iterations + " on " + threads + " threads: "
+        + (differences.isEmpty() ? "identical" : differences.size() + " differences " + differences.subList(0, Math.min(10, differences.size()))));
+      if (!differences.isEmpty()) {
+        failures++;
+      }
+    }
+    if (failures > 0) {
+      System.err.println(failures + " parallel generations differ from the serial generation");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Generates the synthetic specification in a temporary folder.
+   *
+   * @param parallelRendering value of the parallelRendering global property, null for a serial rendering
+   * @return the content of the generated files, by relative path
+   */
+  private static Map<String, byte[]> generate(int size, String parallelRendering) throws IOException {
+    OpenAPI openAPI = SyntheticSpecFactory.create(size);
+    File outputDir = Files.createTempDirectory("otter-parallel-rendering").toFile();
+    try {
+      GlobalSettings.reset();
+      if (parallelRendering != null) {
+        GlobalSettings.setProperty("parallelRendering", parallelRendering);
+      }
+      TypescriptfetchGenerator codegen = new TypescriptfetchGenerator();
+      codegen.setOutputDir(outputDir.getAbsolutePath());
+      new OtterGenerator().opts(new ClientOptInput().openAPI(openAPI).config(codegen)).generate();
+
+      Map<String, byte[]> files = new TreeMap<String, byte[]>();
+      Path root = outputDir.toPath();
+      try (Stream<Path> paths = Files.walk(root)) {
+        for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+          files.put(root.relativize(path).toString(), Files.readAllBytes(path));
+        }
+      }
+      return files;
+    } finally {
+      GlobalSettings.reset();
+      FileUtils.deleteDirectory(outputDir);
+    }
+  }
+
+  private static List<String> compare(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+    Set<String> paths = new TreeSet<String>(expected.keySet());
+    paths.addAll(actual.keySet());
+    return paths.stream()
+      .filter(path -> !expected.containsKey(path) || !actual.containsKey(path) || !Arrays.equals(expected.get(path), actual.get(path)))
+      .collect(Collectors.toList());
+  }
+}
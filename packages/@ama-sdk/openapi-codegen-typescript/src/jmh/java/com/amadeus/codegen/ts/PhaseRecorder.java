@@ -0,0 +1,106 @@
+package com.amadeus.codegen.ts;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Accumulates wall time, allocated bytes and heap usage per generation phase.
+ *
+ * A phase can be entered many times (e.g. once per property for postProcessModelProperty), the statistics are summed
+ * over all the calls. The heap figure of a phase is the highest heap usage observed when leaving one of its calls.
+ */
+public final class PhaseRecorder {
+
+  /** Statistics of a single phase */
+  public static final class PhaseStats {
+    private long calls;
+    private long nanos;
+    private long allocatedBytes;
+    private long maxHeapBytes;
+  }
+
+  private final Map<String, PhaseStats> phases = new LinkedHashMap<String, PhaseStats>();
+
+  private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+  private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  /**
+   * Runs the given body and records it under the given phase.
+   *
+   * @param phase the phase name
+   * @param body the code of the phase
+   * @param <T> the type returned by the phase
+   * @return the value returned by the body
+   */
+  public <T> T record(String phase, Callable<T> body) {
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    try {
+      return body.call();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+      PhaseStats stats = phases.get(phase);
+      if (stats == null) {
+        stats = new PhaseStats();
+        phases.put(phase, stats);
+      }
+      stats.calls++;
+      stats.nanos += elapsed;
+      stats.allocatedBytes += allocated;
+      stats.maxHeapBytes = Math.max(stats.maxHeapBytes, memoryBean.getHeapMemoryUsage().getUsed());
+    }
+  }
+
+  /**
+   * Resets the peak usage of every heap memory pool, to be called before the measured run.
+   */
+  public static void resetPeakHeap() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /**
+   * @return the sum of the peak usage of the heap memory pools since the last {@link #resetPeakHeap()}
+   */
+  public static long peakHeap() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  /**
+   * Formats the recorded phases as a table.
+   *
+   * @return the report
+   */
+  public String report() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format(Locale.ROOT, "%-34s %10s %12s %14s %14s%n", "phase", "calls", "time (ms)", "alloc (MB)", "heap max (MB)"));
+    for (Map.Entry<String, PhaseStats> entry : phases.entrySet()) {
+      PhaseStats stats = entry.getValue();
+      sb.append(String.format(Locale.ROOT, "%-34s %10d %12.1f %14.1f %14.1f%n", entry.getKey(), stats.calls,
+        stats.nanos / 1e6, stats.allocatedBytes / 1048576.0, stats.maxHeapBytes / 1048576.0));
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,190 @@
+package com.amadeus.codegen.ts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.DateSchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.PathParameter;
+import io.swagger.v3.oas.models.parameters.QueryParameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.servers.Server;
+
+/**
+ * Builds synthetic OpenAPI specifications shaped like our largest SDKs.
+ *
+ * A specification of size N contains roughly N schemas and N operations, mixing:
+ * - enums (one schema out of ten)
+ * - allOf inheritance chains up to {@link #CHAIN_DEPTH} levels deep
+ * - discriminated hierarchies (a base schema with a mapping to two subtypes)
+ * - dictionary properties (x-dictionary-name, x-field-name, x-field-type)
+ * - dates, maps and nested arrays
+ */
+public final class SyntheticSpecFactory {
+
+  /** Depth of the allOf inheritance chains */
+  public static final int CHAIN_DEPTH = 5;
+
+  /** Number of operations grouped under the same tag (hence in the same API file) */
+  private static final int OPERATIONS_PER_TAG = 25;
+
+  private SyntheticSpecFactory() {}
+
+  /**
+   * Creates a specification with approximately the given number of schemas and operations.
+   *
+   * @param size the number of schemas and operations to generate
+   * @return the OpenAPI specification
+   */
+  public static OpenAPI create(int size) {
+    Map<String, Schema> schemas = new LinkedHashMap<String, Schema>();
+    // each group contributes 10 schemas
+    int groups = Math.max(1, size / 10);
+    for (int group = 0; group < groups; group++) {
+      addGroup(schemas, group);
+    }
+
+    Paths paths = new Paths();
+    // each path contributes a GET and a POST operation
+    for (int index = 0; index < Math.max(1, size / 2); index++) {
+      int group = index % groups;
+      String tag = "resource" + (index / (OPERATIONS_PER_TAG / 2));
+      PathItem pathItem = new PathItem()
+        .get(new Operation()
+          .operationId("getEntity" + index)
+          .tags(Arrays.asList(tag))
+          .addParametersItem(new PathParameter().name("entityId").required(true).schema(new StringSchema()))
+          .addParametersItem(new QueryParameter().name("filters").schema(new ArraySchema().items(new StringSchema())))
+          .addParametersItem(new QueryParameter().name("departureDate").schema(new DateSchema()))
+          .addParametersItem(new QueryParameter().name("status").schema(ref("Status" + group)))
+          .responses(responses(ref("Entity" + group))))
+        .post(new Operation()
+          .operationId("createEntity" + index)
+          .tags(Arrays.asList(tag))
+          .addParametersItem(new PathParameter().name("entityId").required(true).schema(new StringSchema()))
+          .requestBody(new RequestBody().content(json(ref("Chain" + group + "_" + (CHAIN_DEPTH - 1)))))
+          .responses(responses(new ArraySchema().items(ref("Vehicle" + group)))));
+      paths.addPathItem("/resources-" + (index % 13) + "/{entityId}/entities-" + index, pathItem);
+    }
+
+    return new OpenAPI()
+      .info(new Info().title("Synthetic benchmark API").version("1.0.0"))
+      .addServersItem(new Server().url("https://localhost/api/v1"))
+      .paths(paths)
+      .components(new Components().schemas(schemas));
+  }
+
+  private static void addGroup(Map<String, Schema> schemas, int group) {
+    // Enum
+    schemas.put("Status" + group, new StringSchema()._enum(Arrays.asList("OPEN", "CLOSED", "PENDING_" + group)));
+
+    // Leaf model referenced through dictionaries
+    schemas.put("Location" + group, new ObjectSchema()
+      .addProperty("code", new StringSchema())
+      .addProperty("latitude", new NumberSchema())
+      .addProperty("longitude", new NumberSchema()));
+
+    // Deep allOf chain: Chain_0 <- Chain_1 <- ... <- Chain_(CHAIN_DEPTH-1)
+    schemas.put("Chain" + group + "_0", new ObjectSchema()
+      .addProperty("id", new StringSchema())
+      .addProperty("creationDate", new DateTimeSchema()));
+    for (int level = 1; level < CHAIN_DEPTH; level++) {
+      ComposedSchema chain = new ComposedSchema();
+      chain.addAllOfItem(ref("Chain" + group + "_" + (level - 1)));
+      chain.addAllOfItem(new ObjectSchema()
+        .addProperty("level" + level, new IntegerSchema())
+        .addProperty("status" + level, ref("Status" + group)));
+      schemas.put("Chain" + group + "_" + level, chain);
+    }
+
+    // Discriminated hierarchy
+    Map<String, String> mapping = new LinkedHashMap<String, String>();
+    mapping.put("CAR", "#/components/schemas/Car" + group);
+    mapping.put("TRUCK", "#/components/schemas/Truck" + group);
+    schemas.put("Vehicle" + group, new ObjectSchema()
+      .addRequiredItem("kind")
+      .addProperty("kind", new StringSchema()._enum(Arrays.asList("Car" + group, "Truck" + group)))
+      .addProperty("wheels", new IntegerSchema())
+      .discriminator(new Discriminator().propertyName("kind").mapping(mapping)));
+    schemas.put("Car" + group, subtype("Vehicle" + group, "seats", new IntegerSchema()));
+    schemas.put("Truck" + group, subtype("Vehicle" + group, "load", ref("Location" + group)));
+
+    // Model gathering every kind of property handled by the codegen
+    Schema locationId = new StringSchema();
+    locationId.addExtension("x-dictionary-name", "locations");
+    locationId.addExtension("x-field-name", "location");
+    locationId.addExtension("x-field-type", "Location" + group);
+    schemas.put("Entity" + group, new ObjectSchema()
+      .addRequiredItem("id")
+      .addProperty("id", new StringSchema())
+      .addProperty("status", ref("Status" + group))
+      .addProperty("departure", new DateSchema())
+      .addProperty("arrival", new DateTimeSchema())
+      .addProperty("locationId", locationId)
+      .addProperty("tags", new ArraySchema().items(new ArraySchema().items(new StringSchema())))
+      .addProperty("vehicles", new ArraySchema().items(ref("Vehicle" + group)))
+      .addProperty("locationsByCode", new ObjectSchema().additionalProperties(ref("Location" + group)))
+      .addProperty("history", ref("Chain" + group + "_" + (CHAIN_DEPTH - 1)))
+      .addProperty("x-custom-name", new StringSchema()));
+  }
+
+  private static Schema subtype(String parent, String propertyName, Schema property) {
+    ComposedSchema subtype = new ComposedSchema();
+    subtype.addAllOfItem(ref(parent));
+    subtype.addAllOfItem(new ObjectSchema().addProperty(propertyName, property));
+    return subtype;
+  }
+
+  private static Schema ref(String name) {
+    return new Schema().$ref("#/components/schemas/" + name);
+  }
+
+  private static Content json(Schema schema) {
+    return new Content().addMediaType("application/json", new MediaType().schema(schema));
+  }
+
+  private static ApiResponses responses(Schema schema) {
+    return new ApiResponses()
+      .addApiResponse("200", new ApiResponse().description("Success").content(json(schema)))
+      .addApiResponse("400", new ApiResponse().description("Bad request"));
+  }
+
+  /**
+   * Parses the sizes given on the command line, defaulting to 1k, 5k and 20k.
+   *
+   * @param args the command line arguments
+   * @return the list of sizes to benchmark
+   */
+  public static List<Integer> sizes(String[] args) {
+    List<Integer> sizes = new ArrayList<Integer>();
+    for (String arg : args) {
+      for (String size : arg.split("[,\\s]+")) {
+        if (!size.isEmpty()) {
+          sizes.add(Integer.parseInt(size));
+        }
+      }
+    }
+    return sizes.isEmpty() ? Arrays.asList(1000, 5000, 20000) : sizes;
+  }
+}
@@ -1,9 +1,10 @@
 package com.amadeus.codegen.ts;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import io.swagger.v3.oas.models.OpenAPI;
@@ -50,9 +51,21 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
   /** Patterns of file paths that should skip overwriting if they already exist */
   protected List<String> skipOverwriteFilepathPatterns;
 
+  /** Overwrite rules compiled from the patterns on first use */
+  private OverwriteRules overwriteRules;
+
   /** List of non-object models (e.g., enums) that do not require revivers for deserialization */
   protected List<String> nonObjectModels;
 
+  /** Non-object models indexed for the lookups of {@link #getNonObjectDefinitions}, built from {@link #nonObjectModels} */
+  private Set<String> nonObjectModelNames = Collections.emptySet();
+
+  /** Dependency graph of the models, computed once all the models are post-processed */
+  protected ModelDependencyGraph modelDependencyGraph;
+
+  /** Class names of the models whose reviver does not transform any data, null if the revivers are not computed per model */
+  protected Set<String> unrevivedModels;
+
   private final Logger LOGGER = LoggerFactory.getLogger(AbstractTypeScriptClientCodegen.class);
 
   /** Whether to stringify Date objects to strings (GlobalSettings: stringifyDate, default: true) */
@@ -67,6 +80,80 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
   /** Custom request body transformation logic (GlobalSettings: requestBodyTransform, default: empty) */
   private final String requestBodyTransform;
 
+  /** Whether to cache the results of the pure naming lambdas (GlobalSettings: memoizeLambdas, default: false) */
+  private final boolean memoizeLambdas;
+
+  /** Names of the lambdas which are pure functions of their fragment, cached when memoizeLambdas is enabled */
+  protected static final List<String> PURE_LAMBDAS = Arrays.asList("kebabCase", "camelize", "uppercaseFirst", "upperSnakeCase",
+    "apiFolderName", "plurialize", "removeBrackets");
+
+  /** Maximum number of fragments cached per memoized lambda */
+  private static final int MEMOIZED_LAMBDA_CACHE_SIZE = 10000;
+
+  /** Memoized lambdas by name, to report their cache statistics */
+  private final Map<String, LambdaHelper.MemoizedLambda> memoizedLambdas = new LinkedHashMap<String, LambdaHelper.MemoizedLambda>();
+
+  /** Whether to skip the files whose inputs did not change since the last generation (GlobalSettings: incrementalGeneration, default: false) */
+  private final boolean incrementalGeneration;
+
+  /** Tags and operationIds of the operations to generate with the models they use (GlobalSettings: treeShaking, colon separated list, default: all the operations) */
+  private final Set<String> treeShakingSelection;
+
+  /** Whether to generate the revivers only for the models transforming data (GlobalSettings: perModelRevivers, default: false) */
+  private final boolean perModelRevivers;
+
+  /** Whether to revive the properties of the models on their first access (GlobalSettings: lazyRevivers, default: false) */
+  private final boolean lazyRevivers;
+
+  /**
+   * Path of the JSON report of the generation phases, relative to the output directory
+   * (GlobalSettings: generationReport, true for {@link GenerationMetrics#REPORT_PATH} or the path of the report, default: none)
+   */
+  private final String generationReportPath;
+
+  /** Type expressions of the generation, parsed and rendered once per distinct type */
+  protected final TypeExpression.Cache typeExpressions = new TypeExpression.Cache();
+
+  /**
+   * Type declarations by schema instance, valid from the end of the preprocessing of the specification to the end of the
+   * generation, as the schemas are not modified in between
+   */
+  private final Map<Schema<?>, String> typeDeclarations = Collections.synchronizedMap(new IdentityHashMap<Schema<?>, String>());
+
+  /** Whether the type declarations can be cached, false while the specification is preprocessed */
+  private volatile boolean typeDeclarationsCached;
+
+  private final LongAdder typeDeclarationHits = new LongAdder();
+
+  private final LongAdder typeDeclarationMisses = new LongAdder();
+
+  /** Timings and counters of the phases of the generation, also emitted as JFR events */
+  protected final GenerationMetrics generationMetrics = new GenerationMetrics();
+
+  /** Additional properties which change at each generation or are already part of the fingerprints, ignored in the generation fingerprint */
+  private static final List<String> VOLATILE_PROPERTIES = Arrays.asList("generatedDate", "generatedYear", "inputSpec");
+
+  /** Manifest of the inputs of the generated files, set when incrementalGeneration is enabled */
+  private GenerationManifest generationManifest;
+
+  /** Whether the generator consults {@link #shouldOverwrite(String)} before rendering each file (see {@link OtterGenerator}) */
+  private boolean overwriteRulesApplied;
+
+  /** Called at the start of {@link #postProcess()}, e.g. to wait for the files rendered in parallel (see {@link OtterGenerator}) */
+  private volatile Runnable beforePostProcess;
+
+  /** Fingerprint of the specification parts shared by all the generated files */
+  private String specificationFingerprint;
+
+  /** Fingerprint of the templates, generator and configuration, computed once the configuration is complete */
+  private String generationFingerprint;
+
+  /**
+   * Number of threads rendering the model and API files, 0 for a serial rendering
+   * (GlobalSettings: parallelRendering, true for one thread per processor or the number of threads, default: false)
+   */
+  private final int renderingThreads;
+
   /**
    * Preprocesses the OpenAPI specification to extract operation adapter paths.
    * This generates the OPERATION_ADAPTER data structure used for runtime operation matching.
@@ -79,7 +166,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * Constructor for Otter-specific TypeScript client code generator.
    *
    * Initializes the generator with Otter-specific customizations on top of the upstream AbstractTypeScriptClientCodegen:
-   * - Reads GlobalSettings properties for Otter-specific behavior (allowModelExtension, useLegacyDateExtension, stringifyDate, requestBodyTransform)
+   * - Reads GlobalSettings properties for Otter-specific behavior (allowModelExtension, useLegacyDateExtension, stringifyDate, requestBodyTransform, memoizeLambdas, incrementalGeneration, parallelRendering, treeShaking, perModelRevivers, lazyRevivers, generationReport)
    * - Adds custom date type mappings (utils.Date, utils.DateTime) based on configuration
    * - Enables ES6 support by default
    * - Registers 20+ custom Mustache lambda helpers for advanced template processing
@@ -101,6 +188,23 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     stringifyDate = stringifyDateString != null ? !"false".equalsIgnoreCase(stringifyDateString) : true;
     String requestBodyTransformString = GlobalSettings.getProperty("requestBodyTransform");
     requestBodyTransform = requestBodyTransformString != null ? requestBodyTransformString : "";
+    String memoizeLambdasString = GlobalSettings.getProperty("memoizeLambdas");
+    memoizeLambdas = memoizeLambdasString != null ? !"false".equalsIgnoreCase(memoizeLambdasString) : false;
+    String incrementalGenerationString = GlobalSettings.getProperty("incrementalGeneration");
+    incrementalGeneration = incrementalGenerationString != null ? !"false".equalsIgnoreCase(incrementalGenerationString) : false;
+    String parallelRenderingString = GlobalSettings.getProperty("parallelRendering");
+    renderingThreads = getRenderingThreads(parallelRenderingString);
+    String perModelReviversString = GlobalSettings.getProperty("perModelRevivers");
+    perModelRevivers = perModelReviversString != null ? !"false".equalsIgnoreCase(perModelReviversString) : false;
+    String lazyReviversString = GlobalSettings.getProperty("lazyRevivers");
+    lazyRevivers = lazyReviversString != null ? !"false".equalsIgnoreCase(lazyReviversString) : false;
+    String generationReportString = GlobalSettings.getProperty("generationReport");
+    generationReportPath = generationReportString == null || "false".equalsIgnoreCase(generationReportString) ? null
+      : generationReportString.isEmpty() || "true".equalsIgnoreCase(generationReportString) ? GenerationMetrics.REPORT_PATH : generationReportString;
+    String treeShakingString = GlobalSettings.getProperty("treeShaking");
+    treeShakingSelection = treeShakingString != null && !treeShakingString.trim().isEmpty()
+      ? new HashSet<String>(Arrays.asList(treeShakingString.trim().split("\\s*:\\s*")))
+      : null;
 
     // Add custom type mappings for Otter date handling
     languageSpecificPrimitives.add("utils.DateTime");
@@ -122,7 +226,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     additionalProperties.put("noEmptyExport", new LambdaHelper.CleanEmptyImportExportLambda("export(?:\\s+type)?"));
     additionalProperties.put("noDuplicateParams", new LambdaHelper.RemoveDuplicateParams(", "));
     additionalProperties.put("noArrayInType", new LambdaHelper.CleanArraySuffix());
-    additionalProperties.put("noDuplicateLine", new LambdaHelper.RemoveDuplicate(" *\\r?\\n *", System.getProperty("line.separator")));
+    additionalProperties.put("noDuplicateLine", new LambdaHelper.RemoveDuplicate(LambdaHelper.LINE_SEPARATOR_REGEXP, System.getProperty("line.separator")));
     additionalProperties.put("simpleMath", new LambdaHelper.SimpleMathLambda());
     additionalProperties.put("uppercaseFirst", new LambdaHelper.UppercaseFirstLambda());
     additionalProperties.put("kebabCase", new LambdaHelper.KebabCaseLambda());
@@ -145,7 +249,144 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     additionalProperties.put("propertyAccess", new LambdaHelper.PropertyAccess());
     additionalProperties.put("headerJsonMimeType", new LambdaHelper.HeaderJsonMimeType());
     additionalProperties.put("keepRevivers", true);
+    additionalProperties.put("lazyRevivers", lazyRevivers);
     additionalProperties.put("transformBodyRequest", new LambdaHelper.TransformBodyRequest(requestBodyTransform));
+    if (memoizeLambdas) {
+      for (String lambdaName : PURE_LAMBDAS) {
+        memoizeLambda(lambdaName);
+      }
+    }
+    registerLambdaPipeline("noEmptyLinesTrimComma", "noEmptyLines", "trimComma");
+  }
+
+  /**
+   * Replaces the lambda registered under the given name by a memoized version, caching its results.
+   * The lambda must be a pure function of its fragment.
+   *
+   * @param lambdaName the name of the registered lambda
+   */
+  protected void memoizeLambda(String lambdaName) {
+    Object lambda = additionalProperties.get(lambdaName);
+    if (!(lambda instanceof LambdaHelper.CustomLambda)) {
+      throw new IllegalArgumentException("No lambda registered under the name " + lambdaName);
+    }
+    LambdaHelper.MemoizedLambda memoizedLambda = new LambdaHelper.MemoizedLambda((LambdaHelper.CustomLambda) lambda, MEMOIZED_LAMBDA_CACHE_SIZE);
+    memoizedLambdas.put(lambdaName, memoizedLambda);
+    additionalProperties.put(lambdaName, memoizedLambda);
+  }
+
+  /**
+   * Registers, under the given name, a lambda applying the given lambdas in a single rendering, as they would be applied
+   * if nested in the template (e.g. noEmptyLinesTrimComma for {{#noEmptyLines}}{{#trimComma}}).
+   *
+   * @param name the name of the lambda in the templates
+   * @param lambdaNames the names of the registered lambdas to apply, from the outermost to the innermost
+   */
+  protected void registerLambdaPipeline(String name, String... lambdaNames) {
+    List<LambdaHelper.CustomLambda> lambdas = new ArrayList<LambdaHelper.CustomLambda>();
+    for (String lambdaName : lambdaNames) {
+      Object lambda = additionalProperties.get(lambdaName);
+      if (!(lambda instanceof LambdaHelper.CustomLambda)) {
+        throw new IllegalArgumentException("No lambda registered under the name " + lambdaName);
+      }
+      lambdas.add((LambdaHelper.CustomLambda) lambda);
+    }
+    additionalProperties.put(name, new LambdaHelper.PipelineLambda(lambdas));
+  }
+
+  /**
+   * Otter-specific: Parses the parallelRendering global setting.
+   *
+   * @param parallelRendering the value of the setting: true (or empty) for one thread per processor, false or a number of threads
+   * @return the number of rendering threads, 0 for a serial rendering
+   */
+  private static int getRenderingThreads(String parallelRendering) {
+    if (parallelRendering == null || "false".equalsIgnoreCase(parallelRendering)) {
+      return 0;
+    }
+    if (parallelRendering.isEmpty() || "true".equalsIgnoreCase(parallelRendering)) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    try {
+      return Math.max(0, Integer.parseInt(parallelRendering.trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid parallelRendering value " + parallelRendering + ", expected true, false or a number of threads", e);
+    }
+  }
+
+  /**
+   * Otter-specific: Returns the number of threads rendering the model and API files (see {@link OtterGenerator}).
+   *
+   * @return the number of rendering threads, 0 for a serial rendering
+   */
+  public int getRenderingThreads() {
+    return renderingThreads;
+  }
+
+  /**
+   * Otter-specific: Sets whether the generator consults {@link #shouldOverwrite(String)} before rendering each file.
+   * The upstream generator does not, so the incremental generation is only enabled by the {@link OtterGenerator}.
+   *
+   * @param overwriteRulesApplied true if the files the codegen does not want to overwrite are skipped
+   */
+  public void setOverwriteRulesApplied(boolean overwriteRulesApplied) {
+    this.overwriteRulesApplied = overwriteRulesApplied;
+  }
+
+  /**
+   * Otter-specific: Sets the action run at the start of {@link #postProcess()}, before the generation manifest and report
+   * are saved. The {@link OtterGenerator} waits there for the files still being rendered in parallel.
+   *
+   * @param beforePostProcess the action to run, null for none
+   */
+  public void setBeforePostProcess(Runnable beforePostProcess) {
+    this.beforePostProcess = beforePostProcess;
+  }
+
+  /**
+   * Otter-specific: Returns the timings and counters of the phases of the generation.
+   *
+   * @return the metrics of the generation
+   */
+  public GenerationMetrics getGenerationMetrics() {
+    return generationMetrics;
+  }
+
+  /**
+   * Reports the cache statistics of the memoized lambdas, saves the generation manifest and writes the generation report
+   * at the end of the generation.
+   */
+  @Override
+  public void postProcess() {
+    Runnable beforePostProcessAction = beforePostProcess;
+    if (beforePostProcessAction != null) {
+      beforePostProcessAction.run();
+    }
+    for (Map.Entry<String, LambdaHelper.MemoizedLambda> entry : memoizedLambdas.entrySet()) {
+      LambdaHelper.MemoizedLambda memoizedLambda = entry.getValue();
+      LOGGER.info("Memoized lambda " + entry.getKey() + ": " + memoizedLambda.getHits() + " hits, " + memoizedLambda.getMisses() + " misses");
+    }
+    generationMetrics.count("typeExpressions", typeExpressions.size());
+    generationMetrics.count("typeDeclarationCacheHits", typeDeclarationHits.sum());
+    generationMetrics.count("typeDeclarationCacheMisses", typeDeclarationMisses.sum());
+    LOGGER.info("Type declaration cache: " + typeDeclarationHits.sum() + " hits, " + typeDeclarationMisses.sum() + " misses");
+    if (generationManifest != null) {
+      try {
+        generationManifest.save();
+      } catch (IOException e) {
+        LOGGER.error("Unable to save the generation manifest, the next generation will not be incremental", e);
+      }
+    }
+    if (generationReportPath != null) {
+      File reportFile = new File(generationReportPath).isAbsolute() ? new File(generationReportPath) : new File(getOutputDir(), generationReportPath);
+      try {
+        generationMetrics.save(reportFile);
+        LOGGER.info("Generation report written in " + reportFile);
+      } catch (IOException e) {
+        LOGGER.error("Unable to write the generation report " + reportFile, e);
+      }
+    }
+    super.postProcess();
   }
 
   @Override
@@ -174,7 +415,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     if (result == null) {
       return null;
     }
-    return result.replaceAll("\\\\([\"'])", "$1");
+    return RegexPatterns.ESCAPED_QUOTE.matcher(result).replaceAll("$1");
   }
 
   /**
@@ -281,7 +522,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * @return the API folder name in kebab-case format
    */
   public String apiFolderName(String name) {
-    return kebabCase(toApiName(name).replaceFirst("(.*)Api$", "$1"));
+    return kebabCase(RegexPatterns.API_SUFFIX.matcher(toApiName(name)).replaceFirst("$1"));
   }
 
   /**
@@ -364,14 +605,18 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    */
   @Override
   public void postProcessModelProperty(CodegenModel model, CodegenProperty property) {
-    // remove recursive Import
-    Iterator<String> iterator = model.imports.iterator();
-    while (iterator.hasNext()) {
-      String imp = iterator.next();
-      if (imp.equals(model.classname)) {
-        iterator.remove();
-      }
+    long startTime = generationMetrics.start();
+    try {
+      doPostProcessModelProperty(model, property);
+    } finally {
+      generationMetrics.stop(GenerationMetrics.Phase.POST_PROCESS_MODEL_PROPERTY, startTime);
     }
+  }
+
+  private void doPostProcessModelProperty(CodegenModel model, CodegenProperty property) {
+    generationMetrics.count("properties", 1);
+    // remove recursive Import
+    model.imports.remove(model.classname);
 
     if (property.isEnum) {
       List<String> allowableValues = (List) property.allowableValues.get("values");
@@ -389,20 +634,19 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
           sanitizedAllowableValues.add(sanitizedAllowableValue);
         }
 
+        // model name of each mapping name, the first mapping of a name taking precedence
+        Map<String, String> mappedModelNames = new HashMap<String, String>();
+        if (model.discriminator.getMappedModels() != null) {
+          for (CodegenDiscriminator.MappedModel mappedModel : model.discriminator.getMappedModels()) {
+            mappedModelNames.putIfAbsent(mappedModel.getMappingName(), mappedModel.getModelName());
+          }
+        }
         // exclude the classname for revivers
         List<AbstractMap.SimpleEntry<String, String>> filteredSubTypes = new ArrayList<AbstractMap.SimpleEntry<String, String>>();
         for (String subType : sanitizedAllowableValues) {
           if (!StringUtils.equals(model.classname, subType)) {
-            String mappedModelName = subType;
-            if (model.discriminator.getMappedModels() != null) {
-              for (CodegenDiscriminator.MappedModel mappedModel : new ArrayList<CodegenDiscriminator.MappedModel>(model.discriminator.getMappedModels())) {
-                if (subType.equals(mappedModel.getMappingName())) {
-                  mappedModelName = mappedModel.getModelName();
-                  break;
-                }
-              }
-            }
-            filteredSubTypes.add(new AbstractMap.SimpleEntry(subType, mappedModelName));
+            String mappedModelName = mappedModelNames.get(subType);
+            filteredSubTypes.add(new AbstractMap.SimpleEntry(subType, mappedModelName != null ? mappedModelName : subType));
           }
         }
 
@@ -460,7 +704,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
         property.baseType = dateDataTypeOverride;
       }
 
-      if (property != null && property.dataType != null && property.dataType.matches("^(Date|utils.Date|utils.DateTime)$")) {
+      if (property != null && property.dataType != null && RegexPatterns.DATE_TYPE.matcher(property.dataType).matches()) {
         property.isPrimitiveType = false;
       }
     }
@@ -538,6 +782,16 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * @param parameter the CodegenParameter to post-process
    */
   public void postProcessParameter(CodegenParameter parameter) {
+    long startTime = generationMetrics.start();
+    try {
+      doPostProcessParameter(parameter);
+    } finally {
+      generationMetrics.stop(GenerationMetrics.Phase.POST_PROCESS_PARAMETER, startTime);
+    }
+  }
+
+  private void doPostProcessParameter(CodegenParameter parameter) {
+    generationMetrics.count("parameters", 1);
     if (parameter.isDate || parameter.isDateTime) {
       String dateDataTypeOverride = this.getDateDataTypeOverride(parameter.paramName, parameter.isDateTime, parameter.vendorExtensions);
       if (dateDataTypeOverride != null) {
@@ -546,7 +800,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
         parameter.baseType = dateDataTypeOverride;
       }
 
-      if (parameter != null && parameter.dataType != null && parameter.dataType.matches("^(Date|utils.Date|utils.DateTime)$")) {
+      if (parameter != null && parameter.dataType != null && RegexPatterns.DATE_TYPE.matcher(parameter.dataType).matches()) {
         parameter.isPrimitiveType = false;
       }
     }
@@ -569,14 +823,122 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
 
     /**
    * Otter-specific override: Add any additional preprocessing logic for the OpenAPI specification:
+   * - Exclude the operations not selected by the treeShaking option, and the models they do not use (see {@link TreeShaking}).
    * - Extract operation adapter paths for runtime matching and add to additionalProperties for template access.
    *
    * @param openAPI the OpenAPI specification to preprocess
    */
   @Override
   public void preprocessOpenAPI(OpenAPI openAPI) {
+    // the preprocessing modifies the schemas, the type declarations are cached once it is complete
+    invalidateTypeDeclarations(false);
+    try {
+      generationMetrics.time(GenerationMetrics.Phase.PREPROCESS_OPENAPI, () -> doPreprocessOpenAPI(openAPI));
+    } finally {
+      invalidateTypeDeclarations(true);
+    }
+  }
+
+  private void doPreprocessOpenAPI(OpenAPI openAPI) {
     super.preprocessOpenAPI(openAPI);
-    this.preprocessOperationAdapter(openAPI);
+    if (treeShakingSelection != null) {
+      TreeShaking treeShaking = new TreeShaking(openAPI);
+      treeShaking.apply(openAPI, treeShakingSelection);
+      LOGGER.info(treeShaking.getSummary());
+    }
+    generationMetrics.time(GenerationMetrics.Phase.PREPROCESS_OPERATION_ADAPTER, () -> this.preprocessOperationAdapter(openAPI));
+    if (incrementalGeneration && overwriteRulesApplied) {
+      this.prepareIncrementalGeneration(openAPI);
+    } else if (incrementalGeneration) {
+      LOGGER.warn("incrementalGeneration ignored: the generator does not apply the overwrite rules, use the com.amadeus.codegen.ts.OtterGenerator entry point");
+    }
+  }
+
+  /**
+   * Otter-specific override: Invalidates the cached type declarations when the specification changes.
+   *
+   * @param openAPI the specification to generate
+   */
+  @Override
+  public void setOpenAPI(OpenAPI openAPI) {
+    if (openAPI != this.openAPI) {
+      typeDeclarations.clear();
+    }
+    super.setOpenAPI(openAPI);
+  }
+
+  /**
+   * Otter-specific: Clears the cached type declarations.
+   *
+   * @param cached whether the next type declarations can be cached
+   */
+  protected void invalidateTypeDeclarations(boolean cached) {
+    typeDeclarationsCached = cached;
+    typeDeclarations.clear();
+  }
+
+  /**
+   * Otter-specific: Computes the fingerprints of the inputs of each model and API file, to skip the files whose inputs
+   * did not change since the last generation (see {@link GenerationManifest}).
+   *
+   * @param openAPI the OpenAPI specification to generate
+   */
+  protected void prepareIncrementalGeneration(OpenAPI openAPI) {
+    SpecFingerprint fingerprint = new SpecFingerprint(openAPI);
+    specificationFingerprint = fingerprint.getSpecificationFingerprint();
+    generationManifest = new GenerationManifest(getOutputDir());
+    for (Map.Entry<String, String> model : fingerprint.getModelFingerprints().entrySet()) {
+      List<String> filenames = new ArrayList<String>();
+      for (String templateName : modelTemplateFiles().keySet()) {
+        filenames.add(modelFilename(templateName, model.getKey()));
+      }
+      for (Map.Entry<String, String> template : modelDocTemplateFiles().entrySet()) {
+        String suffix = getDocExtension() != null ? getDocExtension() : template.getValue();
+        filenames.add(modelDocFileFolder() + File.separator + toModelDocFilename(model.getKey()) + suffix);
+      }
+      generationManifest.addEntry("models/" + model.getKey(), model.getValue(), filenames);
+    }
+    for (Map.Entry<String, String> api : fingerprint.getApiFingerprints(this::sanitizeTag).entrySet()) {
+      List<String> filenames = new ArrayList<String>();
+      for (String templateName : apiTemplateFiles().keySet()) {
+        filenames.add(apiFilename(templateName, api.getKey()));
+      }
+      for (String templateName : apiDocTemplateFiles().keySet()) {
+        filenames.add(apiDocFilename(templateName, api.getKey()));
+      }
+      generationManifest.addEntry("apis/" + api.getKey(), api.getValue(), filenames);
+    }
+  }
+
+  /**
+   * Otter-specific: Returns the fingerprint of everything the generated files depend on, apart from their own part of
+   * the specification: the generator code and templates, the configuration and the shared parts of the specification.
+   *
+   * The configuration includes the global properties changing the generated files (perModelRevivers, lazyRevivers,
+   * treeShaking). Computed on first call, once the configuration is complete (additional properties set during the
+   * models processing).
+   *
+   * @return the generation fingerprint
+   */
+  protected String getGenerationFingerprint() {
+    if (generationFingerprint == null) {
+      StringBuilder inputs = new StringBuilder(String.valueOf(specificationFingerprint)).append('\n');
+      inputs.append(stringifyDate).append(allowModelExtension).append(useLegacyDateExtension).append(requestBodyTransform).append('\n');
+      inputs.append(perModelRevivers).append(lazyRevivers).append('\n');
+      inputs.append(treeShakingSelection != null ? new TreeSet<String>(treeShakingSelection) : "").append('\n');
+      for (Map.Entry<String, Object> property : new TreeMap<String, Object>(additionalProperties).entrySet()) {
+        Object value = property.getValue();
+        if ((value instanceof String || value instanceof Boolean || value instanceof Number) && !VOLATILE_PROPERTIES.contains(property.getKey())) {
+          inputs.append(property.getKey()).append('=').append(value).append('\n');
+        }
+      }
+      inputs.append(new TreeMap<String, String>(typeMapping)).append(new TreeMap<String, String>(importMapping))
+        .append(new TreeMap<String, String>(schemaMapping)).append('\n');
+      List<Class<?>> classes = Arrays.<Class<?>>asList(getClass(), AbstractTypeScriptClientCodegen.class);
+      inputs.append(GenerationManifest.hashSources(classes, Collections.singletonList(new File(templateDir()))));
+      generationFingerprint = SpecFingerprint.hash(inputs.toString());
+    }
+    return generationFingerprint;
   }
 
   /**
@@ -606,26 +968,17 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
   /**
    * Otter-specific: Converts TypeScript Array<T> syntax to T[] syntax, handling nested arrays.
    *
-   * Iteratively converts from innermost to outermost arrays:
+   * The types are parsed once per generation (see {@link TypeExpression.Cache}) and converted at any nesting level:
    * - Array<string> → string[]
    * - Array<Array<string>> → string[][]
    * - Record<string, Array<Pet>> → Record<string, Pet[]>
+   * - Array<Record<string, Array<Pet>>> → Record<string, Pet[]>[]
    *
    * @param dataType the data type string to convert (may be null)
    * @return the converted data type with T[] syntax, or null if input is null
    */
   private String convertArraySyntaxToTypeScript(String dataType) {
-    if (dataType == null) {
-      return null;
-    }
-
-    // Iteratively convert from innermost to outermost
-    // Pattern matches Array<content> where content has no nested angle brackets
-    while (dataType.matches(".*Array<.*>.*")) {
-      dataType = dataType.replaceAll("Array<([^<>]+)>", "$1[]");
-    }
-
-    return dataType;
+    return dataType == null ? null : typeExpressions.toArraySyntax(dataType);
   }
 
   /**
@@ -658,20 +1011,36 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * Otter-specific override: Returns the TypeScript type declaration for a schema.
    *
    * **Difference from base:** Handles array types with custom logic, using TypeScript's
-   * array suffix notation (e.g., "Pet[]") instead of the base implementation's approach.
-   * For non-array types, delegates to the base implementation.
+   * array suffix notation (e.g., "Pet[]", "(Cat | Dog)[]") instead of the base implementation's approach.
+   * For non-array types, delegates to the base implementation. The declarations are cached by schema instance during
+   * the generation (see {@link #invalidateTypeDeclarations(boolean)}).
    *
    * @param p the schema to generate a type declaration for
    * @return the TypeScript type declaration string (e.g., "Pet[]", "Record<string, Pet>")
    */
   @Override
   public String getTypeDeclaration(Schema p) {
+    if (!typeDeclarationsCached || p == null) {
+      return computeTypeDeclaration(p);
+    }
+    String typeDeclaration = typeDeclarations.get(p);
+    if (typeDeclaration != null) {
+      typeDeclarationHits.increment();
+      return typeDeclaration;
+    }
+    typeDeclarationMisses.increment();
+    typeDeclaration = computeTypeDeclaration(p);
+    typeDeclarations.put(p, typeDeclaration);
+    return typeDeclaration;
+  }
+
+  private String computeTypeDeclaration(Schema<?> p) {
     if (ModelUtils.isArraySchema(p)) {
-      Schema items = ModelUtils.getSchemaItems(p);
-      return getTypeDeclaration(ModelUtils.unaliasSchema(this.openAPI, items)) + "[]";
+      Schema<?> items = ModelUtils.getSchemaItems(p);
+      return typeExpressions.arrayOf(getTypeDeclaration(ModelUtils.unaliasSchema(this.openAPI, items)));
     } else if (ModelUtils.isMapSchema(p)) {
-      Schema inner = getSchemaAdditionalProperties(p);
-      return "Record<string, " + getTypeDeclaration(ModelUtils.unaliasSchema(this.openAPI, inner)) + ">";
+      Schema<?> inner = getSchemaAdditionalProperties(p);
+      return typeExpressions.recordOf(getTypeDeclaration(ModelUtils.unaliasSchema(this.openAPI, inner)));
     }
     return super.getTypeDeclaration(p);
   }
@@ -685,14 +1054,17 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * - Includes discriminator subtypes for reviver generation
    * - Sets requireDictionary vendor extension when dictionary fields are present
    *
+   * The field types and subtypes are read from the model dependency graph.
+   *
    * @param objs the ModelsMap to process imports for
+   * @param graph the dependency graph of all the models
    * @return the ModelsMap with processed imports
    */
-  private ModelsMap postProcessImports(ModelsMap objs) {
+  private ModelsMap postProcessImports(ModelsMap objs, ModelDependencyGraph graph) {
     List<ModelMap> models = objs.getModels();
     // Store additional imports from vendor extensions
     List<Map<String, String>> importsMap = objs.getImports();
-    List<String> alreadyImported = new ArrayList();
+    Set<String> alreadyImported = new HashSet<String>();
     for (Map _map : importsMap) {
       String _import = (String) _map.get("import");
       _map.put("import", _import.substring(_import.lastIndexOf(".") + 1));
@@ -700,46 +1072,139 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     }
     for (ModelMap modelMap : models) {
       CodegenModel model = modelMap.getModel();
-      boolean containsExtensions = false;
-      ArrayList<List<CodegenProperty>> group = new ArrayList<List<CodegenProperty>>();
-      group.add(model.allVars);
-      group.add(model.vars);
-      group.add(model.requiredVars);
-      group.add(model.optionalVars);
-      for (List<CodegenProperty> container : group) {
-        for (CodegenProperty prop : container) {
-          Map<String, Object> vendorExtensions = prop.vendorExtensions;
-          List<String> importKeys = new ArrayList<String>();
-          if (vendorExtensions.containsKey("x-field-type")) {
-            containsExtensions = true;
-            importKeys.add((String) vendorExtensions.get("x-field-type"));
-          }
-          Map<String, Object> vendors = model.vendorExtensions;
-          if (vendors != null && vendors.containsKey("x-discriminator-subtypes")) {
-            for (AbstractMap.SimpleEntry<String, String> entry : (List<AbstractMap.SimpleEntry<String, String>>) vendors.get("x-discriminator-subtypes")) {
-              importKeys.add(entry.getValue());
-            }
-          }
-          for (String importModel : importKeys) {
-            if (!this.languageSpecificPrimitives.contains(importModel) && !alreadyImported.contains(importModel)) {
-              alreadyImported.add(importModel);
-              HashMap<String, String> addImport = new HashMap();
-              addImport.put("import", importModel);
-              importsMap.add(addImport);
-            }
-          }
+      for (String importModel : graph.getDependencies(model.classname, ModelDependencyGraph.Dependency.FIELD_TYPE, ModelDependencyGraph.Dependency.SUBTYPE)) {
+        if (!this.languageSpecificPrimitives.contains(importModel) && alreadyImported.add(importModel)) {
+          HashMap<String, String> addImport = new HashMap();
+          addImport.put("import", importModel);
+          importsMap.add(addImport);
         }
+      }
 
-        // We store on the model's vendor extension a parameter saying our vars have vendor extensions (hence, a dictionary)
-        if (containsExtensions) {
-          model.vendorExtensions.put("requireDictionary", Boolean.TRUE);
-        }
+      // We store on the model's vendor extension a parameter saying our vars have vendor extensions (hence, a dictionary)
+      if (graph.hasDictionary(model.classname)) {
+        model.vendorExtensions.put("requireDictionary", Boolean.TRUE);
       }
     }
 
     return objs;
   }
 
+  /**
+   * Otter-specific: Computes the nonObjectDefinition vendor extension of each property of a model.
+   *
+   * The properties are considered in the order of allVars, vars, requiredVars and optionalVars, and the flag is set
+   * from the first property referencing a non-object model (enum) onwards. A property listed several times keeps the
+   * value of its last occurrence. The non-object models are the ones known when postProcessAllModels started.
+   *
+   * @param model the model to analyze
+   * @return the nonObjectDefinition value of each property of the model
+   */
+  protected Map<CodegenProperty, Boolean> getNonObjectDefinitions(CodegenModel model) {
+    List<List<CodegenProperty>> group = Arrays.asList(model.allVars, model.vars, model.requiredVars, model.optionalVars);
+    // position of the last occurrence of each property
+    Map<CodegenProperty, Integer> lastPositions = new IdentityHashMap<CodegenProperty, Integer>();
+    int firstNonObjectPosition = Integer.MAX_VALUE;
+    int position = 0;
+    for (List<CodegenProperty> container : group) {
+      for (CodegenProperty prop : container) {
+        if (firstNonObjectPosition == Integer.MAX_VALUE && prop.complexType != null && nonObjectModelNames.contains(prop.complexType)) {
+          firstNonObjectPosition = position;
+        }
+        lastPositions.put(prop, position++);
+      }
+    }
+    Map<CodegenProperty, Boolean> nonObjectDefinitions = new IdentityHashMap<CodegenProperty, Boolean>(lastPositions.size());
+    for (Map.Entry<CodegenProperty, Integer> lastPosition : lastPositions.entrySet()) {
+      nonObjectDefinitions.put(lastPosition.getKey(), lastPosition.getValue() >= firstNonObjectPosition);
+    }
+    return nonObjectDefinitions;
+  }
+
+  /**
+   * Otter-specific: Determines which models need a reviver, when the revivers are computed per model (perModelRevivers).
+   *
+   * A model transforms data if it has a dictionary, a property revived without model (e.g. a date) or a property of a
+   * model type which is not known, and transitively if one of its revived properties or discriminator subtypes
+   * references a model transforming data. The subtypes and dictionary field types of these models keep their reviver,
+   * as they are revived unconditionally, even if they do not transform data themselves.
+   *
+   * Sets the vendor extensions read by the templates:
+   * - x-skip-reviver on the models without reviver, generated as an empty reviver file and not exported
+   * - x-skip-revival on the properties and API responses of a model type which does not transform data, not revived
+   *
+   * @param objs the post-processed models
+   * @param graph the dependency graph of the models
+   */
+  protected void computePerModelRevivers(Map<String, ModelsMap> objs, ModelDependencyGraph graph) {
+    Map<String, CodegenModel> models = new HashMap<String, CodegenModel>();
+    for (ModelsMap modelsMap : objs.values()) {
+      for (ModelMap modelMap : modelsMap.getModels()) {
+        models.put(modelMap.getModel().classname, modelMap.getModel());
+      }
+    }
+    // models whose reviver calls the reviver of each model
+    Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+    Deque<String> toVisit = new ArrayDeque<String>();
+    for (CodegenModel model : models.values()) {
+      if (model.isEnum) {
+        continue;
+      }
+      boolean transformsData = Boolean.TRUE.equals(model.vendorExtensions.get("requireDictionary"));
+      for (CodegenProperty var : model.allVars) {
+        if (var.isPrimitiveType) {
+          continue;
+        }
+        if (var.complexType == null) {
+          transformsData |= !var.isEnum && !var.isEnumRef;
+        } else if (!Boolean.TRUE.equals(var.vendorExtensions.get("nonObjectDefinition"))) {
+          transformsData |= !models.containsKey(var.complexType);
+          dependents.computeIfAbsent(var.complexType, key -> new HashSet<String>()).add(model.classname);
+        }
+      }
+      for (String subType : graph.getDependencies(model.classname, ModelDependencyGraph.Dependency.SUBTYPE)) {
+        dependents.computeIfAbsent(subType, key -> new HashSet<String>()).add(model.classname);
+      }
+      if (transformsData) {
+        toVisit.add(model.classname);
+      }
+    }
+    Set<String> revivedModels = new HashSet<String>();
+    while (!toVisit.isEmpty()) {
+      String revivedModel = toVisit.pop();
+      if (revivedModels.add(revivedModel) && dependents.containsKey(revivedModel)) {
+        toVisit.addAll(dependents.get(revivedModel));
+      }
+    }
+
+    Set<String> modelsWithReviver = new HashSet<String>(revivedModels);
+    toVisit.addAll(revivedModels);
+    while (!toVisit.isEmpty()) {
+      for (String target : graph.getDependencies(toVisit.pop(), ModelDependencyGraph.Dependency.SUBTYPE, ModelDependencyGraph.Dependency.FIELD_TYPE)) {
+        if (models.containsKey(target) && modelsWithReviver.add(target)) {
+          toVisit.add(target);
+        }
+      }
+    }
+
+    unrevivedModels = new HashSet<String>();
+    for (CodegenModel model : models.values()) {
+      if (!revivedModels.contains(model.classname)) {
+        unrevivedModels.add(model.classname);
+      }
+      if (!model.isEnum && !modelsWithReviver.contains(model.classname)) {
+        model.vendorExtensions.put("x-skip-reviver", true);
+      }
+    }
+    for (CodegenModel model : models.values()) {
+      for (CodegenProperty var : model.allVars) {
+        if (var.complexType != null && unrevivedModels.contains(var.complexType)) {
+          var.vendorExtensions.put("x-skip-revival", true);
+        }
+      }
+    }
+    LOGGER.info("Revivers generated for " + modelsWithReviver.size() + " of " + models.size() + " models");
+  }
+
   /**
    * Otter-specific override: Post-processes all models with reviver logic and import management.
    *
@@ -748,7 +1213,8 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * - Determines if revivers are needed based on model complexity (dictionaries, non-primitive types)
    * - Sets keepRevivers flag globally and per-model to control reviver template generation
    * - Removes reviver templates if not needed to reduce generated code size
-   * - Calls postProcessImports to handle Otter-specific import requirements
+   * - Otherwise, determines the reviver necessity of each model when perModelRevivers is enabled
+   * - Builds the model dependency graph and calls postProcessImports to handle Otter-specific import requirements
    *
    * The base implementation handles standard model post-processing without the reviver optimization logic.
    *
@@ -757,37 +1223,27 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    */
   @Override
   public Map<String, ModelsMap> postProcessAllModels(Map<String, ModelsMap> objs) {
-    System.out.println("Non object models: " + nonObjectModels.toString());
-    for (Map.Entry<String, ModelsMap> entry : objs.entrySet()) {
-      ModelsMap modelsMap = entry.getValue();
-      List<ModelMap> modelMaps = modelsMap.getModels();
-      for (ModelMap _modelMap : modelMaps) {
-        CodegenModel model = _modelMap.getModel();
-        boolean nonObjectDefinition = false;
-        ArrayList<List<CodegenProperty>> group = new ArrayList<List<CodegenProperty>>();
-        group.add(model.allVars);
-        group.add(model.vars);
-        group.add(model.requiredVars);
-        group.add(model.optionalVars);
-        // Loops through allVars
-        for (List<CodegenProperty> container : group) {
-          for (CodegenProperty prop : container) {
-            if (prop.complexType != null) {
-              for (String str : nonObjectModels) { // Check if the complexType is in the nonObjectModels list
-                if (prop.complexType.equals(str)) {
-                  nonObjectDefinition = true;
-                  break;
-                }
-              }
-            }
-            prop.vendorExtensions.put("nonObjectDefinition", nonObjectDefinition);
-          }
-        }
+    return generationMetrics.time(GenerationMetrics.Phase.POST_PROCESS_ALL_MODELS, () -> doPostProcessAllModels(objs));
+  }
+
+  private Map<String, ModelsMap> doPostProcessAllModels(Map<String, ModelsMap> objs) {
+    LOGGER.info("Non object models: " + nonObjectModels.toString());
+    List<ModelMap> modelMaps = new ArrayList<ModelMap>();
+    for (ModelsMap modelsMap : objs.values()) {
+      modelMaps.addAll(modelsMap.getModels());
+    }
+    generationMetrics.count("models", modelMaps.size());
+    nonObjectModelNames = new HashSet<String>(nonObjectModels);
+    for (ModelMap modelMap : modelMaps) {
+      for (Map.Entry<CodegenProperty, Boolean> nonObjectDefinition : getNonObjectDefinitions(modelMap.getModel()).entrySet()) {
+        nonObjectDefinition.getKey().vendorExtensions.put("nonObjectDefinition", nonObjectDefinition.getValue());
       }
     }
     objs = super.postProcessAllModels(objs);
+    modelDependencyGraph = new ModelDependencyGraph(objs);
     for (Map.Entry<String, ModelsMap> entry : objs.entrySet()) {
-      entry.setValue(this.postProcessImports(entry.getValue()));
+      ModelsMap modelsMap = entry.getValue();
+      entry.setValue(generationMetrics.time(GenerationMetrics.Phase.POST_PROCESS_IMPORTS, () -> this.postProcessImports(modelsMap, modelDependencyGraph)));
     }
     // if allowModelExtension is true, we don't need to analyze the conditions since we want to ensure the generation of the revivers
     if (!allowModelExtension) {
@@ -809,12 +1265,65 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
         modelTemplateFiles.remove("model/reviver.mustache");
         Predicate<SupportingFile> isReviversTemplatePredicate = supportingFile -> "model/revivers.mustache".equals(supportingFile.getTemplateFile());
         supportingFiles.removeIf(isReviversTemplatePredicate);
+      } else if (perModelRevivers) {
+        this.computePerModelRevivers(objs, modelDependencyGraph);
       }
     }
+    if (generationManifest != null) {
+      this.addComputedModelStates(objs);
+    }
 
     return objs;
   }
 
+  /**
+   * Otter-specific: Adds to the generation manifest the template flags of each model computed from the other models
+   * (reviver necessity, revival of the properties, discriminator subtypes), which are not part of the model inputs.
+   *
+   * @param objs the post-processed models
+   */
+  protected void addComputedModelStates(Map<String, ModelsMap> objs) {
+    for (Map.Entry<String, ModelsMap> entry : objs.entrySet()) {
+      StringBuilder state = new StringBuilder();
+      for (ModelMap modelMap : entry.getValue().getModels()) {
+        CodegenModel model = modelMap.getModel();
+        if (model.vendorExtensions.containsKey("x-skip-reviver")) {
+          state.append("x-skip-reviver;");
+        }
+        if (model.vendorExtensions.containsKey("x-discriminator-subtypes")) {
+          state.append("x-discriminator-subtypes=").append(model.vendorExtensions.get("x-discriminator-subtypes")).append(';');
+        }
+        for (CodegenProperty var : model.allVars) {
+          if (var.vendorExtensions.containsKey("x-skip-revival")) {
+            state.append("x-skip-revival=").append(var.name).append(';');
+          }
+        }
+      }
+      generationManifest.addEntryState("models/" + entry.getKey(), state.toString());
+    }
+  }
+
+  /**
+   * Otter-specific: Adds to the generation manifest the responses of the API which are not revived, computed from the
+   * models.
+   *
+   * @param operationList the post-processed operations of the API
+   */
+  protected void addComputedApiState(List<CodegenOperation> operationList) {
+    StringBuilder state = new StringBuilder();
+    for (CodegenOperation operation : operationList) {
+      if (operation.responses == null) {
+        continue;
+      }
+      for (CodegenResponse response : operation.responses) {
+        if (response.vendorExtensions.containsKey("x-skip-revival")) {
+          state.append("x-skip-revival=").append(operation.operationId).append(':').append(response.code).append(';');
+        }
+      }
+    }
+    generationManifest.addEntryState("apis/" + operationList.get(0).baseName, state.toString());
+  }
+
   /**
    * Otter-specific: Post-processes operations with custom import handling and PII tracking.
    *
@@ -830,6 +1339,10 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    */
   @SuppressWarnings("static-method")
   public OperationsMap postProcessOperationsWithModels(OperationsMap objs, List<ModelMap> allModels) {
+    return generationMetrics.time(GenerationMetrics.Phase.POST_PROCESS_OPERATIONS_WITH_MODELS, () -> doPostProcessOperationsWithModels(objs, allModels));
+  }
+
+  private OperationsMap doPostProcessOperationsWithModels(OperationsMap objs, List<ModelMap> allModels) {
     for (Iterator<Map<String, String>> iter = objs.getImports().listIterator(); iter.hasNext(); ) {
       Map _map = iter.next();
       String _import = (String) _map.get("import");
@@ -847,6 +1360,8 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     OperationMap operations = objs.getOperations();
     List<CodegenOperation> operationList = operations.getOperation();
 
+    generationMetrics.count("apis", 1);
+    generationMetrics.count("operations", operationList.size());
     for (CodegenOperation operation : operationList) {
       for (CodegenParameter param : operation.allParams) {
         if ((param.isQueryParam || param.isPathParam) && param.vendorExtensions.containsKey("x-risk-personal-data-field")) {
@@ -858,6 +1373,9 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
         Set<String> responses2xxReturnTypes = new HashSet<>();
         for (CodegenResponse response : operation.responses) {
           if (response.is2xx) {
+            if (unrevivedModels != null && !response.primitiveType && unrevivedModels.contains(response.baseType)) {
+              response.vendorExtensions.put("x-skip-revival", true);
+            }
             responses2xx.add(response);
             responses2xxReturnTypes.add(response.dataType == null ? "void" : response.dataType);
           }
@@ -870,6 +1388,9 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     }
 
     operations.put("x-risk-personal-data-field-list", piiParams);
+    if (generationManifest != null && !operationList.isEmpty()) {
+      this.addComputedApiState(operationList);
+    }
     return objs;
   }
 
@@ -905,39 +1426,65 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
   /**
    * Otter-specific override: Determines if a file should be overwritten with fine-grained pattern control.
    *
-   * **Difference from base:** Implements a three-tier decision process:
-   * 1. Force overwrite if filename matches any pattern in overwriteFilepathPatterns
-   * 2. Skip overwrite if filename matches skipOverwriteFilepathPatterns and file exists
-   * 3. Delegate to base implementation for standard behavior
+   * **Difference from base:** Implements a four-tier decision process:
+   * 1. Skip overwrite if the incremental generation is enabled and the inputs of the file did not change
+   * 2. Force overwrite if filename matches any pattern in overwriteFilepathPatterns
+   * 3. Skip overwrite if filename matches skipOverwriteFilepathPatterns and file exists
+   * 4. Delegate to base implementation for standard behavior
    *
    * This allows generators to have fine control over which files are always regenerated (e.g., models)
    * and which should be preserved if they exist (e.g., custom configuration files).
+   * The patterns are precompiled and the decisions cached per file (see {@link OverwriteRules}), the decisions are
+   * logged at debug level.
    *
    * @param filename the absolute path of the file to check
    * @return true if the file should be overwritten, false if it should be preserved
    */
   @Override
   public boolean shouldOverwrite(String filename) {
-    for (String pattern : this.overwriteFilepathPatterns) {
-      if (filename.matches(pattern)) {
-        LOGGER.info("Force override for " + filename);
-        return true;
-      }
+    long startTime = generationMetrics.start();
+    try {
+      return doShouldOverwrite(filename);
+    } finally {
+      generationMetrics.stop(GenerationMetrics.Phase.SHOULD_OVERWRITE, startTime);
     }
-    for (String pattern : this.skipOverwriteFilepathPatterns) {
-      if (filename.matches(pattern)) {
-        File f = new File(filename);
-        if (f.isFile()) {
-          LOGGER.info("Skip override for " + filename);
+  }
+
+  private boolean doShouldOverwrite(String filename) {
+    if (generationManifest != null && generationManifest.isUpToDate(filename, getGenerationFingerprint())) {
+      LOGGER.debug("Inputs unchanged since the last generation, skip override for " + filename);
+      return false;
+    }
+    OverwriteRules rules = getOverwriteRules();
+    switch (rules.getRule(filename)) {
+      case FORCE_OVERWRITE:
+        LOGGER.debug("Force override for " + filename);
+        return true;
+      case SKIP_OVERWRITE:
+        if (rules.exists(filename)) {
+          LOGGER.debug("Skip override for " + filename);
           return false;
         } else {
-          LOGGER.info("No file found, creating " + filename);
+          LOGGER.debug("No file found, creating " + filename);
           return true;
         }
-      }
+      default:
+        LOGGER.debug("Default override rule for " + filename);
+        return super.shouldOverwrite(filename);
+    }
+  }
+
+  /**
+   * Otter-specific: Returns the overwrite rules compiled from overwriteFilepathPatterns and skipOverwriteFilepathPatterns,
+   * compiling them again if the patterns have been modified since the last call.
+   *
+   * @return the precompiled overwrite rules
+   */
+  protected OverwriteRules getOverwriteRules() {
+    if (overwriteRules == null || !overwriteRules.isCompiledFrom(overwriteFilepathPatterns, skipOverwriteFilepathPatterns)) {
+      overwriteRules = new OverwriteRules(overwriteFilepathPatterns, skipOverwriteFilepathPatterns);
     }
-    LOGGER.info("Default override rule for " + filename);
-    return super.shouldOverwrite(filename);
+    return overwriteRules;
   }
 
   /**
@@ -980,7 +1527,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * @return a regex pattern string for matching file paths
    */
   public String getFilePathPattern(String folder, String fileExtension, boolean recursive, boolean ignoreIndex) {
-    String pattern = ".*(\\/|\\\\)" + folder.replaceAll("/", "(\\\\/|\\\\\\\\)") + "(\\/|\\\\)";
+    String pattern = ".*(\\/|\\\\)" + StringUtils.replace(folder, "/", "(\\/|\\\\)") + "(\\/|\\\\)";
     if (recursive) {
       pattern += "(\\/|\\\\|\\w)*";
     }
@@ -1217,7 +1764,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
    * @return the kebab-case string (e.g., "PetApi" → "pet-api", "petStore" → "pet-store")
    */
   public String kebabCase(String str) {
-    return str.length() > 0 ? lowerFirst(str).replaceAll("([A-Z])", "-$1").toLowerCase() : "";
+    return str.length() > 0 ? RegexPatterns.UPPERCASE_LETTER.matcher(lowerFirst(str)).replaceAll("-$1").toLowerCase() : "";
   }
 
   /**
@@ -1235,7 +1782,7 @@ public abstract class AbstractTypeScriptClientCodegen extends org.openapitools.c
     if (ModelUtils.isMapSchema(schema)) {
       Schema additionalProperties = ModelUtils.getAdditionalProperties(schema);
       String inner = this.getSchemaType(additionalProperties);
-      return (String) "Record<string, " + inner + ">";
+      return typeExpressions.recordOf(inner);
     } else {
       return super.toInstantiationType(schema);
     }
@@ -0,0 +1,169 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.swagger.v3.oas.models.OpenAPI;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.Context;
+import org.openapitools.codegen.config.WorkflowSettings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Otter-specific: Configurator loading the parsed and resolved specification from the {@link SpecCache} when the
+ * specCache global property is set (true for a folder in the temporary folder, or the path of the cache folder).
+ *
+ * On a cache hit, the parsing and the resolution of the specification are skipped: the settings of the generation are
+ * built from a minimal specification and the cached specification is used instead. On a cache miss, the specification
+ * is parsed as usual and stored in the cache.
+ *
+ * The cache hits and misses are reported in the generation metrics (specCacheHits, specCacheMisses and specLoadTimeMs
+ * counters, see {@link GenerationMetrics}).
+ */
+public class CachingCodegenConfigurator extends CodegenConfigurator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingCodegenConfigurator.class);
+
+  /** Global property enabling the cache */
+  public static final String SPEC_CACHE_PROPERTY = "specCache";
+
+  /** Minimal specification parsed instead of the cached one, to build the settings of the generation */
+  private static final String STUB_SPEC = "openapi: 3.0.3\ninfo:\n  title: Cached specification\n  version: 0.0.0\npaths: {}\n";
+
+  private String inputSpec;
+
+  /** Whether the specification is validated, as by default in the workflow settings */
+  private boolean validateSpec = true;
+
+  private SpecCache specCache;
+
+  /** Whether the last context was built from the cache, null if the cache was not used */
+  private Boolean cacheHit;
+
+  private long specLoadTime;
+
+  @Override
+  public CodegenConfigurator setInputSpec(String inputSpec) {
+    this.inputSpec = inputSpec;
+    return super.setInputSpec(inputSpec);
+  }
+
+  @Override
+  public CodegenConfigurator setValidateSpec(boolean validateSpec) {
+    this.validateSpec = validateSpec;
+    return super.setValidateSpec(validateSpec);
+  }
+
+  @Override
+  public CodegenConfigurator addGlobalProperty(String key, String value) {
+    if (SPEC_CACHE_PROPERTY.equals(key)) {
+      specCache = "false".equalsIgnoreCase(value) ? null : new SpecCache(SpecCache.resolveFolder(value));
+    }
+    return super.addGlobalProperty(key, value);
+  }
+
+  @Override
+  public CodegenConfigurator setGlobalProperties(Map<String, String> globalProperties) {
+    String option = globalProperties != null ? globalProperties.get(SPEC_CACHE_PROPERTY) : null;
+    specCache = option == null || "false".equalsIgnoreCase(option) ? null : new SpecCache(SpecCache.resolveFolder(option));
+    return super.setGlobalProperties(globalProperties);
+  }
+
+  @Override
+  public Context<?> toContext() {
+    cacheHit = null;
+    if (specCache == null || inputSpec == null || !SpecCache.isCacheable(inputSpec)) {
+      return super.toContext();
+    }
+    long start = System.nanoTime();
+    OpenAPI cachedSpec = specCache.load(inputSpec, getParseOptions());
+    if (cachedSpec == null) {
+      Context<?> context = super.toContext();
+      if (context.getSpecDocument() instanceof OpenAPI) {
+        specCache.store(inputSpec, getParseOptions(), (OpenAPI) context.getSpecDocument());
+      }
+      cacheHit = false;
+      specLoadTime = System.nanoTime() - start;
+      LOGGER.info("Spec cache miss for " + inputSpec + " (" + TimeUnit.NANOSECONDS.toMillis(specLoadTime) + " ms)");
+      return context;
+    }
+
+    String realInputSpec = inputSpec;
+    Context<?> stubContext;
+    try {
+      super.setInputSpec(getStubSpec().getPath());
+      stubContext = super.toContext();
+    } finally {
+      super.setInputSpec(realInputSpec);
+    }
+    WorkflowSettings workflowSettings = WorkflowSettings.newBuilder(stubContext.getWorkflowSettings())
+      .withInputSpec(realInputSpec)
+      .build();
+    cacheHit = true;
+    specLoadTime = System.nanoTime() - start;
+    LOGGER.info("Spec cache hit for " + inputSpec + " (" + TimeUnit.NANOSECONDS.toMillis(specLoadTime) + " ms)");
+    return new Context<OpenAPI>(cachedSpec, stubContext.getGeneratorSettings(), workflowSettings);
+  }
+
+  @Override
+  public ClientOptInput toClientOptInput() {
+    ClientOptInput input = super.toClientOptInput();
+    CodegenConfig config = getConfig(input);
+    if (cacheHit != null && config instanceof AbstractTypeScriptClientCodegen) {
+      GenerationMetrics metrics = ((AbstractTypeScriptClientCodegen) config).getGenerationMetrics();
+      metrics.count(cacheHit ? "specCacheHits" : "specCacheMisses", 1);
+      metrics.count("specLoadTimeMs", TimeUnit.NANOSECONDS.toMillis(specLoadTime));
+    }
+    return input;
+  }
+
+  /**
+   * Returns the codegen created by {@link CodegenConfigurator#toClientOptInput()}.
+   *
+   * The configurator creates and configures the codegen within toClientOptInput, and the input is the only way to
+   * reach it: its accessor is deprecated upstream without replacement.
+   *
+   * @param input the input built by a configurator
+   * @return the codegen of the input
+   */
+  @SuppressWarnings("deprecation")
+  static CodegenConfig getConfig(ClientOptInput input) {
+    return input.getConfig();
+  }
+
+  /**
+   * @return the options of the parsing (fixed by the upstream configurator) and of the validation of the specification:
+   * a specification cached without validation must not be used by a generation validating it
+   */
+  private String getParseOptions() {
+    return "resolve,resolveResponses,validateSpec=" + validateSpec;
+  }
+
+  /**
+   * @return the minimal specification file, written in the cache folder
+   */
+  private File getStubSpec() {
+    File stubSpec = new File(specCache.getFolder(), "stub-spec.yaml");
+    if (!stubSpec.isFile()) {
+      try {
+        stubSpec.getParentFile().mkdirs();
+        File tempFile = File.createTempFile("stub-spec", ".tmp", stubSpec.getParentFile());
+        Files.write(tempFile.toPath(), STUB_SPEC.getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile.toPath(), stubSpec.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        throw new RuntimeException("Cannot write the stub specification " + stubSpec, e);
+      }
+    }
+    return stubSpec;
+  }
+}
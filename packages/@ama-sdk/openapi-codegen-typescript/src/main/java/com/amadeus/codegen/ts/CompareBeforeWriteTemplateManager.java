@@ -0,0 +1,104 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openapitools.codegen.TemplateManager;
+import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.templating.TemplateManagerOptions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Otter-specific template manager writing a rendered file only if its content differs from the file on disk.
+ *
+ * Unchanged files keep their modification time, so the incremental builds and file watchers of the generated SDK only
+ * process the files which actually changed. Unlike the upstream minimal update, the rendered content is compared in
+ * memory, without writing a temporary file.
+ *
+ * The unchanged files are logged at debug level only; the number of written, unchanged and skipped (ignored or not
+ * overwritten) files is available for reporting, and logged at info level by the {@link OtterGenerator}.
+ */
+public class CompareBeforeWriteTemplateManager extends TemplateManager {
+
+  private final Logger LOGGER = LoggerFactory.getLogger(CompareBeforeWriteTemplateManager.class);
+
+  private final boolean skipOverwrite;
+
+  private final AtomicInteger writtenFiles = new AtomicInteger();
+
+  private final AtomicInteger unchangedFiles = new AtomicInteger();
+
+  private final AtomicInteger skippedFiles = new AtomicInteger();
+
+  /**
+   * @param options the template manager options (the minimal update option is redundant with this manager)
+   * @param engineAdapter the templating engine
+   * @param templateLoaders the locators of the templates, by priority
+   */
+  public CompareBeforeWriteTemplateManager(TemplateManagerOptions options, TemplatingEngineAdapter engineAdapter, TemplatePathLocator[] templateLoaders) {
+    super(options, engineAdapter, templateLoaders);
+    this.skipOverwrite = options.isSkipOverwrite();
+  }
+
+  @Override
+  public File writeToFile(String filename, byte[] contents) throws IOException {
+    File outputFile = new File(filename);
+    if (skipOverwrite && outputFile.exists()) {
+      skippedFiles.incrementAndGet();
+    } else if (hasContent(outputFile, contents)) {
+      LOGGER.debug("Skipped unchanged file {}", filename);
+      unchangedFiles.incrementAndGet();
+      return outputFile;
+    } else {
+      writtenFiles.incrementAndGet();
+    }
+    return super.writeToFile(filename, contents);
+  }
+
+  @Override
+  public void ignore(Path path, String context) {
+    skippedFiles.incrementAndGet();
+    super.ignore(path, context);
+  }
+
+  @Override
+  public void skip(Path path, String context) {
+    skippedFiles.incrementAndGet();
+    super.skip(path, context);
+  }
+
+  /**
+   * @return the number of files written on disk
+   */
+  public int getWrittenFiles() {
+    return writtenFiles.get();
+  }
+
+  /**
+   * @return the number of rendered files identical to the files on disk
+   */
+  public int getUnchangedFiles() {
+    return unchangedFiles.get();
+  }
+
+  /**
+   * @return the number of files not rendered or not overwritten (ignore file, overwrite rules, generation options)
+   */
+  public int getSkippedFiles() {
+    return skippedFiles.get();
+  }
+
+  /**
+   * Compares the content of the file with the given content, reading the file only if both have the same size.
+   */
+  private static boolean hasContent(File file, byte[] contents) throws IOException {
+    return file.isFile() && file.length() == contents.length && Arrays.equals(Files.readAllBytes(file.toPath()), contents);
+  }
+}
@@ -0,0 +1,148 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Otter-specific: Runs a list of generation jobs (see {@link GenerationJob}) in parallel in a single JVM.
+ *
+ * The JVM startup, the loading of the generator classes and the compilation of the templates are paid once for all the
+ * SDKs, and the independent jobs are run on a pool of threads, so the regeneration of many SDKs scales with the number
+ * of cores. Each job has its own codegen instance and global settings: the global settings of the generator (including
+ * the generation of the aliases as models) are thread local, so the jobs do not share them.
+ *
+ * The jobs are described in a JSON file, either as an array of jobs or as an object with the jobs and the number of
+ * threads (the number of available processors by default):
+ * ```json
+ * {
+ *   "threads": 4,
+ *   "jobs": [
+ *     {"id": "sdk-a", "inputSpec": "a/spec.yaml", "outputDir": "a"},
+ *     {"id": "sdk-b", "inputSpec": "b/spec.yaml", "outputDir": "b", "globalProperties": {"stringifyDate": "false"}}
+ *   ]
+ * }
+ * ```
+ *
+ * Command line example:
+ * ```shell
+ * java -cp "typescriptFetch-openapi-generator.jar;openapi-generator-cli.jar" com.amadeus.codegen.ts.GenerationBatch jobs.json
+ * ```
+ * The results of the jobs are written on the standard output as a JSON array, in the order of the jobs, and the
+ * process exits with an error code if a job failed.
+ */
+public class GenerationBatch {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GenerationBatch.class);
+
+  private final List<GenerationJob> jobs;
+
+  private final int threads;
+
+  /**
+   * @param jobs the jobs to run
+   * @param threads the maximum number of jobs run in parallel
+   */
+  public GenerationBatch(List<GenerationJob> jobs, int threads) {
+    this.jobs = jobs;
+    this.threads = Math.max(1, Math.min(threads, jobs.size()));
+  }
+
+  /**
+   * @param batch the JSON description of the batch: an array of jobs, or an object with the jobs and the threads
+   * @return the batch
+   */
+  public static GenerationBatch fromJson(JsonNode batch) {
+    JsonNode jobNodes = batch.isArray() ? batch : batch.path("jobs");
+    if (!jobNodes.isArray()) {
+      throw new IllegalArgumentException("Missing jobs in the generation batch");
+    }
+    List<GenerationJob> jobs = new ArrayList<GenerationJob>();
+    for (JsonNode job : jobNodes) {
+      jobs.add(new GenerationJob(job));
+    }
+    return new GenerationBatch(jobs, batch.path("threads").asInt(Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Runs the jobs in parallel.
+   *
+   * @return the results of the jobs, in the order of the jobs (see {@link GenerationJob#run()})
+   */
+  public ArrayNode run() {
+    List<Future<ObjectNode>> runningJobs = new ArrayList<Future<ObjectNode>>();
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "otter-batch-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (GenerationJob job : jobs) {
+        runningJobs.add(executor.submit(job::run));
+      }
+      ArrayNode resultNodes = Json.mapper().createArrayNode();
+      for (int i = 0; i < jobs.size(); i++) {
+        resultNodes.add(getResult(jobs.get(i), runningJobs.get(i)));
+      }
+      return resultNodes;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ObjectNode getResult(GenerationJob job, Future<ObjectNode> runningJob) {
+    try {
+      return runningJob.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while running the generation " + job.getId(), e);
+    } catch (ExecutionException e) {
+      // the job reports all its exceptions and errors in its result
+      throw new IllegalStateException("Unexpected failure of the generation " + job.getId(), e.getCause());
+    }
+  }
+
+  /**
+   * Runs the batch described in the given JSON file.
+   *
+   * @param args the path of the JSON file of the jobs
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: GenerationBatch <jobs.json>");
+    }
+    PrintStream results = System.out;
+    // the generators and their dependencies print on the standard output
+    System.setOut(System.err);
+    GenerationBatch batch = fromJson(Json.mapper().readTree(new File(args[0])));
+
+    long start = System.nanoTime();
+    ArrayNode resultNodes = batch.run();
+    int failures = 0;
+    for (JsonNode result : resultNodes) {
+      if (!result.path("success").asBoolean()) {
+        failures++;
+      }
+    }
+    LOGGER.info(resultNodes.size() + " generations run on " + batch.threads + " threads in "
+      + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms (" + failures + " failed)");
+    results.println(Json.mapper().writerWithDefaultPrettyPrinter().writeValueAsString(resultNodes));
+    results.flush();
+    if (failures > 0) {
+      System.exit(1);
+    }
+  }
+}
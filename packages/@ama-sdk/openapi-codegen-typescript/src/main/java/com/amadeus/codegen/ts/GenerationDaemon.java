@@ -0,0 +1,91 @@
+package com.amadeus.codegen.ts;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+/**
+ * Otter-specific: Long-lived generator process, running the generations requested on its standard input in a warm JVM.
+ *
+ * The JVM startup, the loading of the generator classes and the compilation of the templates are paid once for all the
+ * generations, instead of once per SDK.
+ *
+ * Protocol (one JSON document per line):
+ * - each line of the standard input is a generation job (see {@link GenerationJob}), run as soon as it is read;
+ * - for each job, a JSON result is written on one line of the standard output, with the id of the job, success, the
+ *   number of generated files, the time and metrics of the generation (timeMs, metrics) or the error;
+ * - the daemon stops at the end of the standard input.
+ *
+ * The logs and anything else printed during the generations go to the standard error, the standard output being
+ * reserved to the results.
+ *
+ * Command line example:
+ * ```shell
+ * echo '{"id": "petstore", "inputSpec": "petstore.yaml", "outputDir": "sdk"}' | java -cp "typescriptFetch-openapi-generator.jar;openapi-generator-cli.jar" com.amadeus.codegen.ts.GenerationDaemon
+ * ```
+ */
+public class GenerationDaemon {
+
+  private final BufferedReader requests;
+
+  private final PrintStream results;
+
+  /**
+   * @param requests the reader of the generation jobs, one per line
+   * @param results the stream of the results, one per line
+   */
+  public GenerationDaemon(BufferedReader requests, PrintStream results) {
+    this.requests = requests;
+    this.results = results;
+  }
+
+  /**
+   * Runs the generation jobs until the end of the requests.
+   *
+   * @return the number of failed jobs
+   */
+  public int run() throws IOException {
+    int failures = 0;
+    String request;
+    while ((request = requests.readLine()) != null) {
+      if (request.trim().isEmpty()) {
+        continue;
+      }
+      ObjectNode result;
+      try {
+        JsonNode job = Json.mapper().readTree(request);
+        result = new GenerationJob(job).run();
+      } catch (IOException | IllegalArgumentException e) {
+        result = Json.mapper().createObjectNode();
+        result.put("success", false);
+        result.put("error", "Invalid generation job: " + e.getMessage());
+      }
+      if (!result.path("success").asBoolean()) {
+        failures++;
+      }
+      results.println(result.toString());
+      results.flush();
+    }
+    return failures;
+  }
+
+  /**
+   * Starts the daemon on the standard input and output.
+   *
+   * @param args no argument
+   */
+  public static void main(String[] args) throws IOException {
+    PrintStream results = System.out;
+    // the generators and their dependencies print on the standard output
+    System.setOut(System.err);
+    BufferedReader requests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    new GenerationDaemon(requests, results).run();
+  }
+}
@@ -0,0 +1,166 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Otter-specific: Generation of an SDK run by a long-lived process (see {@link GenerationDaemon} and
+ * {@link GenerationBatch}).
+ *
+ * A job is described in JSON:
+ * ```json
+ * {
+ *   "id": "my-sdk",
+ *   "inputSpec": "path/to/spec.yaml",
+ *   "outputDir": "path/to/sdk",
+ *   "generatorName": "typescriptFetch",
+ *   "templateDir": "path/to/custom/templates",
+ *   "globalProperties": {"stringifyDate": "false"},
+ *   "additionalProperties": {"npmName": "my-sdk"}
+ * }
+ * ```
+ * Only inputSpec is required, the output directory is the current directory by default.
+ *
+ * Each job runs with its own codegen instance and its own global settings: the {@link GlobalSettings} of the running
+ * thread are reset before and after the job, so the settings of a job never leak into the next one. The compiled
+ * templates are shared by the jobs using the same templates, and compiled again when the files of the template folder
+ * change (see {@link SharedTemplateEngineAdapter}); only the engines of the most recently used templates are kept.
+ */
+public class GenerationJob {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GenerationJob.class);
+
+  /** Maximum number of template engines kept for the next jobs, the least recently used one is evicted beyond */
+  private static final int MAX_TEMPLATE_ENGINES = 16;
+
+  /** Template engines shared by the jobs, by templates key */
+  private static final Map<String, SharedTemplateEngineAdapter> TEMPLATE_ENGINES = LambdaHelper.createLruCache(MAX_TEMPLATE_ENGINES);
+
+  private final String id;
+
+  private final String inputSpec;
+
+  private final String outputDir;
+
+  private final String generatorName;
+
+  private final String templateDir;
+
+  private final Map<String, String> globalProperties;
+
+  private final Map<String, String> additionalProperties;
+
+  /**
+   * @param job the JSON description of the job
+   */
+  public GenerationJob(JsonNode job) {
+    this.inputSpec = job.path("inputSpec").asText(null);
+    if (inputSpec == null || inputSpec.isEmpty()) {
+      throw new IllegalArgumentException("Missing inputSpec in the generation job " + job);
+    }
+    this.id = job.path("id").asText(inputSpec);
+    this.outputDir = job.path("outputDir").asText(".");
+    this.generatorName = job.path("generatorName").asText("typescriptFetch");
+    this.templateDir = job.path("templateDir").asText(null);
+    this.globalProperties = toProperties(job.path("globalProperties"));
+    this.additionalProperties = toProperties(job.path("additionalProperties"));
+  }
+
+  private static Map<String, String> toProperties(JsonNode node) {
+    Map<String, String> properties = new LinkedHashMap<String, String>();
+    for (Map.Entry<String, JsonNode> field : node.properties()) {
+      properties.put(field.getKey(), field.getValue().isValueNode() ? field.getValue().asText() : field.getValue().toString());
+    }
+    return properties;
+  }
+
+  /**
+   * @return the identifier of the job, the input specification by default
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return the key of the templates of the job: jobs with the same key render the same templates
+   */
+  public String getTemplatesKey() {
+    String library = additionalProperties.get("library");
+    return generatorName + '|' + (templateDir != null ? new File(templateDir).getAbsolutePath() : "") + '|' + (library != null ? library : "");
+  }
+
+  /**
+   * @return the fingerprint of the content of the template folder of the job, empty without template folder
+   */
+  public String getTemplatesFingerprint() {
+    return templateDir != null
+      ? GenerationManifest.hashSources(Collections.<Class<?>>emptyList(), Collections.singletonList(new File(templateDir)))
+      : "";
+  }
+
+  /**
+   * Runs the generation in the current thread, with the global settings of the job only.
+   *
+   * @return the result of the generation: success, number of files, time and metrics of the generation (see
+   * {@link GenerationMetrics}), or the error and time of the failed generation
+   */
+  public ObjectNode run() {
+    long start = System.nanoTime();
+    ObjectNode result = Json.mapper().createObjectNode();
+    result.put("id", id);
+    // the global settings of the thread may have been inherited from the thread which created it
+    GlobalSettings.reset();
+    try {
+      CodegenConfigurator configurator = new CachingCodegenConfigurator()
+        .setGeneratorName(generatorName)
+        .setInputSpec(inputSpec)
+        .setOutputDir(outputDir);
+      if (templateDir != null) {
+        configurator.setTemplateDir(templateDir);
+      }
+      for (Map.Entry<String, String> property : globalProperties.entrySet()) {
+        configurator.addGlobalProperty(property.getKey(), property.getValue());
+      }
+      for (Map.Entry<String, String> property : additionalProperties.entrySet()) {
+        configurator.addAdditionalProperty(property.getKey(), property.getValue());
+      }
+      ClientOptInput input = configurator.toClientOptInput();
+      CodegenConfig config = CachingCodegenConfigurator.getConfig(input);
+      if ("mustache".equals(config.getTemplatingEngine().getIdentifier())) {
+        String templatesFingerprint = getTemplatesFingerprint();
+        // the engine compiled from a previous version of the templates is replaced
+        config.setTemplatingEngine(TEMPLATE_ENGINES.compute(getTemplatesKey(), (key, engine) ->
+          engine != null && engine.getTemplatesFingerprint().equals(templatesFingerprint) ? engine : new SharedTemplateEngineAdapter(templatesFingerprint)));
+      }
+      List<File> files = new OtterGenerator().opts(input).generate();
+      result.put("success", true);
+      result.put("files", files.size());
+      if (config instanceof AbstractTypeScriptClientCodegen) {
+        result.set("metrics", ((AbstractTypeScriptClientCodegen) config).getGenerationMetrics().toReport());
+      }
+    } catch (RuntimeException | Error e) {
+      // the errors (e.g. stack overflow on a deeply nested specification) fail the job only and are reported the same way
+      LOGGER.error("Generation " + id + " failed", e);
+      result.put("success", false);
+      result.put("error", e.getMessage() != null ? e.getMessage() : e.toString());
+    } finally {
+      GlobalSettings.reset();
+    }
+    result.put("timeMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return result;
+  }
+}
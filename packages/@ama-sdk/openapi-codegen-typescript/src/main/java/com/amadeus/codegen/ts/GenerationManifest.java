@@ -0,0 +1,204 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Otter-specific: Manifest of the fingerprints of the inputs of each generated file, persisted next to the output.
+ *
+ * Each entry (a model or an API) has a fingerprint (see {@link SpecFingerprint}) and the list of the files generated
+ * from it. A file is up to date when it exists and when neither the fingerprint of its entry nor the fingerprint of the
+ * generation (templates, generator code, configuration) changed since the last generation. The fingerprint of an entry
+ * also covers the state computed from the other entries during the generation (see {@link #addEntryState}).
+ *
+ * Only the entries with files processed during the generation are updated in the manifest, so a partial generation
+ * (e.g. with the models global property) never marks files it did not render as up to date.
+ */
+public class GenerationManifest {
+
+  /** Path of the manifest, relative to the output directory */
+  public static final String MANIFEST_PATH = ".openapi-generator/otter-manifest.json";
+
+  private static final String GENERATION_FIELD = "generation";
+
+  private static final String ENTRIES_FIELD = "entries";
+
+  private final Logger LOGGER = LoggerFactory.getLogger(GenerationManifest.class);
+
+  private final File manifestFile;
+
+  /** Generation fingerprint of the previous generation, null if there is no previous manifest */
+  private final String previousGenerationFingerprint;
+
+  /** Fingerprints of the previous generation, by entry */
+  private final Map<String, String> previousFingerprints = new HashMap<String, String>();
+
+  /** Fingerprints of the current generation, by entry */
+  private final Map<String, String> fingerprints = new TreeMap<String, String>();
+
+  /** Entry of each generated file, by normalized path */
+  private final Map<String, String> entriesByFile = new HashMap<String, String>();
+
+  /** Entries with at least one file processed by the current generation */
+  private final Set<String> processedEntries = new HashSet<String>();
+
+  private String generationFingerprint;
+
+  /**
+   * Loads the manifest of the previous generation, if any.
+   *
+   * @param outputDir the output directory of the generation
+   */
+  public GenerationManifest(String outputDir) {
+    this.manifestFile = new File(outputDir, MANIFEST_PATH);
+    String previousGeneration = null;
+    if (manifestFile.isFile()) {
+      try {
+        JsonNode manifest = Json.mapper().readTree(manifestFile);
+        previousGeneration = manifest.path(GENERATION_FIELD).asText(null);
+        for (Map.Entry<String, JsonNode> entry : manifest.path(ENTRIES_FIELD).properties()) {
+          previousFingerprints.put(entry.getKey(), entry.getValue().asText());
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Unable to read the generation manifest " + manifestFile + ", all the files will be generated", e);
+        previousGeneration = null;
+        previousFingerprints.clear();
+      }
+    }
+    this.previousGenerationFingerprint = previousGeneration;
+  }
+
+  /**
+   * Registers an entry of the generation.
+   *
+   * @param entry the entry key (e.g. models/Pet)
+   * @param fingerprint the fingerprint of the inputs of the entry
+   * @param filenames the files which can be generated from the entry (some templates may be dropped during the generation)
+   */
+  public void addEntry(String entry, String fingerprint, Collection<String> filenames) {
+    fingerprints.put(entry, fingerprint);
+    for (String filename : filenames) {
+      entriesByFile.put(normalize(filename), entry);
+    }
+  }
+
+  /**
+   * Folds into the fingerprint of an entry the state computed during the generation from the other entries, which is not
+   * part of the entry inputs (e.g. the reviver of a model depends on the models referencing it).
+   *
+   * @param entry the entry key (e.g. models/Pet)
+   * @param state the computed state of the entry, empty for none; to add before the files of the entry are checked
+   */
+  public void addEntryState(String entry, String state) {
+    String fingerprint = fingerprints.get(entry);
+    if (fingerprint != null && !state.isEmpty()) {
+      fingerprints.put(entry, SpecFingerprint.hash(fingerprint + '\n' + state));
+    }
+  }
+
+  /**
+   * Determines if the file is up to date, and records it as processed by the current generation.
+   *
+   * @param filename the file about to be generated
+   * @param generationFingerprint the fingerprint of the templates, generator and configuration of the generation
+   * @return true if the file exists and was generated from the same inputs
+   */
+  public boolean isUpToDate(String filename, String generationFingerprint) {
+    this.generationFingerprint = generationFingerprint;
+    String path = normalize(filename);
+    String entry = entriesByFile.get(path);
+    if (entry == null) {
+      return false;
+    }
+    processedEntries.add(entry);
+    return generationFingerprint.equals(previousGenerationFingerprint)
+      && fingerprints.get(entry).equals(previousFingerprints.get(entry))
+      && new File(filename).isFile();
+  }
+
+  /**
+   * Persists the fingerprints of the entries processed by the current generation, keeping the previous fingerprints of
+   * the other entries if they are still valid.
+   */
+  public void save() throws IOException {
+    if (generationFingerprint == null) {
+      LOGGER.info("No file processed through the generation manifest, " + manifestFile + " is left untouched");
+      return;
+    }
+    boolean sameGeneration = generationFingerprint.equals(previousGenerationFingerprint);
+    ObjectNode manifest = Json.mapper().createObjectNode();
+    manifest.put(GENERATION_FIELD, generationFingerprint);
+    ObjectNode entries = manifest.putObject(ENTRIES_FIELD);
+    int upToDateEntries = 0;
+    for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+      if (processedEntries.contains(entry.getKey())) {
+        entries.put(entry.getKey(), entry.getValue());
+        upToDateEntries++;
+      } else if (sameGeneration && previousFingerprints.containsKey(entry.getKey())) {
+        entries.put(entry.getKey(), previousFingerprints.get(entry.getKey()));
+      }
+    }
+    manifestFile.getParentFile().mkdirs();
+    Json.mapper().writerWithDefaultPrettyPrinter().writeValue(manifestFile, manifest);
+    LOGGER.info("Generation manifest " + manifestFile + " updated for " + upToDateEntries + "/" + fingerprints.size() + " entries");
+  }
+
+  /**
+   * Hashes the code sources of the given classes (jar or classes folder) and the given folders, so the fingerprint
+   * changes with any update of the generator or of its templates.
+   *
+   * @param classes the classes of the generator
+   * @param folders additional folders (e.g. custom templates), ignored if they do not exist
+   * @return the fingerprint of the generator
+   */
+  public static String hashSources(Collection<Class<?>> classes, Collection<File> folders) {
+    Set<File> locations = new TreeSet<File>();
+    for (Class<?> clazz : classes) {
+      CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+      try {
+        locations.add(codeSource != null ? new File(codeSource.getLocation().toURI()) : new File(clazz.getName()));
+      } catch (URISyntaxException e) {
+        locations.add(new File(clazz.getName()));
+      }
+    }
+    locations.addAll(folders);
+
+    MessageDigest digest = SpecFingerprint.newDigest();
+    for (File location : locations) {
+      digest.update(location.getAbsolutePath().getBytes());
+      if (!location.exists()) {
+        continue;
+      }
+      try (Stream<Path> files = Files.walk(location.toPath())) {
+        for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+          digest.update(file.toString().getBytes());
+          digest.update(Files.readAllBytes(file));
+        }
+      } catch (IOException e) {
+        // an unreadable source cannot be fingerprinted, use a unique value to regenerate everything
+        digest.update(UUID.randomUUID().toString().getBytes());
+      }
+    }
+    return SpecFingerprint.toHex(digest.digest());
+  }
+
+  private static String normalize(String filename) {
+    return new File(filename).getAbsoluteFile().toPath().normalize().toString();
+  }
+}
@@ -0,0 +1,229 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+/**
+ * Otter-specific: Timings and counters of the phases of a generation.
+ *
+ * Each call of a phase is timed (see {@link #time(Phase, Supplier)}) and, when the Java Flight Recorder records it,
+ * emitted as a {@link GenerationPhaseEvent} so the phases can be analyzed in a recording with the other JVM events. The
+ * phases called for each property, parameter or file are only timed (see {@link #start()}), without event nor
+ * allocation, as they are called thousands of times on large specifications. The phases are timed inclusively: the
+ * time of a nested phase (e.g. postProcessImports) is part of the time of its parent phase.
+ *
+ * The timings and the counters (models, operations, files...) can be written as a JSON report at the end of the
+ * generation (generationReport global property).
+ */
+public class GenerationMetrics {
+
+  /** Path of the default report, relative to the output directory */
+  public static final String REPORT_PATH = ".openapi-generator/otter-generation-report.json";
+
+  /** Phases of the generation, named after the methods of the codegen */
+  public enum Phase {
+    PREPROCESS_OPENAPI("preprocessOpenAPI"),
+    PREPROCESS_OPERATION_ADAPTER("preprocessOperationAdapter"),
+    POST_PROCESS_MODEL_PROPERTY("postProcessModelProperty"),
+    POST_PROCESS_PARAMETER("postProcessParameter"),
+    POST_PROCESS_ALL_MODELS("postProcessAllModels"),
+    POST_PROCESS_IMPORTS("postProcessImports"),
+    POST_PROCESS_OPERATIONS_WITH_MODELS("postProcessOperationsWithModels"),
+    SHOULD_OVERWRITE("shouldOverwrite");
+
+    private final String methodName;
+
+    Phase(String methodName) {
+      this.methodName = methodName;
+    }
+
+    /**
+     * @return the name of the codegen method of the phase
+     */
+    public String getMethodName() {
+      return methodName;
+    }
+  }
+
+  /** Whether the JFR events can be emitted (Java 8 runtimes without Flight Recorder) */
+  private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+  private final Map<Phase, LongAdder> calls = new EnumMap<Phase, LongAdder>(Phase.class);
+
+  private final Map<Phase, LongAdder> durations = new EnumMap<Phase, LongAdder>(Phase.class);
+
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>();
+
+  private final long startTime = System.nanoTime();
+
+  public GenerationMetrics() {
+    // the maps are filled upfront, so they are only read concurrently
+    for (Phase phase : Phase.values()) {
+      calls.put(phase, new LongAdder());
+      durations.put(phase, new LongAdder());
+    }
+  }
+
+  /**
+   * Times a call of a phase.
+   *
+   * @param phase the phase of the call
+   * @param call the call to time
+   * @return the result of the call
+   */
+  public <T> T time(Phase phase, Supplier<T> call) {
+    Timer timer = new Timer(phase);
+    try {
+      return call.get();
+    } finally {
+      timer.stop();
+    }
+  }
+
+  /**
+   * Times a call of a phase.
+   *
+   * @param phase the phase of the call
+   * @param call the call to time
+   */
+  public void time(Phase phase, Runnable call) {
+    Timer timer = new Timer(phase);
+    try {
+      call.run();
+    } finally {
+      timer.stop();
+    }
+  }
+
+  /**
+   * Starts a call of a phase called for each property, parameter or file, without JFR event nor allocation.
+   *
+   * @return the start time of the call, to pass to {@link #stop(Phase, long)}
+   */
+  public long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Ends a call started with {@link #start()}.
+   *
+   * @param phase the phase of the call
+   * @param startTime the start time of the call
+   */
+  public void stop(Phase phase, long startTime) {
+    calls.get(phase).increment();
+    durations.get(phase).add(System.nanoTime() - startTime);
+  }
+
+  /**
+   * @param counter the name of the counter
+   * @param value the value to add to the counter
+   */
+  public void count(String counter, long value) {
+    counters.computeIfAbsent(counter, key -> new LongAdder()).add(value);
+  }
+
+  /**
+   * @param phase the phase
+   * @return the number of calls of the phase
+   */
+  public long getCalls(Phase phase) {
+    return calls.get(phase).sum();
+  }
+
+  /**
+   * @param phase the phase
+   * @return the cumulated time of the calls of the phase, in nanoseconds
+   */
+  public long getDuration(Phase phase) {
+    return durations.get(phase).sum();
+  }
+
+  /**
+   * @param counter the name of the counter
+   * @return the value of the counter, 0 if never counted
+   */
+  public long getCounter(String counter) {
+    LongAdder value = counters.get(counter);
+    return value != null ? value.sum() : 0;
+  }
+
+  /**
+   * @return the report of the generation: total time, time and calls of each phase, counters
+   */
+  public ObjectNode toReport() {
+    ObjectNode report = Json.mapper().createObjectNode();
+    report.put("totalTimeMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    ObjectNode phases = report.putObject("phases");
+    for (Phase phase : Phase.values()) {
+      ObjectNode phaseReport = phases.putObject(phase.getMethodName());
+      phaseReport.put("calls", getCalls(phase));
+      phaseReport.put("timeMs", TimeUnit.NANOSECONDS.toMillis(getDuration(phase)));
+    }
+    ObjectNode countersReport = report.putObject("counters");
+    for (String counter : new TreeSet<String>(counters.keySet())) {
+      countersReport.put(counter, getCounter(counter));
+    }
+    return report;
+  }
+
+  /**
+   * Writes the report of the generation as JSON.
+   *
+   * @param reportFile the file of the report
+   */
+  public void save(File reportFile) throws IOException {
+    if (reportFile.getParentFile() != null) {
+      reportFile.getParentFile().mkdirs();
+    }
+    Json.mapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, toReport());
+  }
+
+  private static boolean isJfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * Timer of a call of a phase.
+   */
+  private final class Timer {
+
+    private final Phase phase;
+
+    private final long start = System.nanoTime();
+
+    /** JFR event of the call, null if the Flight Recorder is not available or the event is not recorded */
+    private final Object event;
+
+    private Timer(Phase phase) {
+      this.phase = phase;
+      this.event = JFR_AVAILABLE ? GenerationPhaseEvent.begin(phase.getMethodName()) : null;
+    }
+
+    private void stop() {
+      calls.get(phase).increment();
+      durations.get(phase).add(System.nanoTime() - start);
+      if (event != null) {
+        GenerationPhaseEvent phaseEvent = (GenerationPhaseEvent) event;
+        phaseEvent.end();
+        if (phaseEvent.shouldCommit()) {
+          phaseEvent.commit();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.amadeus.codegen.ts;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Otter-specific: Java Flight Recorder event of a call of a generation phase (see {@link GenerationMetrics}).
+ *
+ * The events are only recorded during a recording, e.g. with:
+ * ```shell
+ * java -XX:StartFlightRecording=filename=generation.jfr -cp ... com.amadeus.codegen.ts.OtterGenerator -i spec.yaml -o .
+ * jfr print --events com.amadeus.codegen.ts.GenerationPhase generation.jfr
+ * ```
+ *
+ * The calls shorter than the threshold (1 ms by default, configurable in the recording settings) are not recorded.
+ *
+ * This class is only loaded when the Flight Recorder is available.
+ */
+@Name("com.amadeus.codegen.ts.GenerationPhase")
+@Label("Generation Phase")
+@Category({"Otter", "SDK Generator"})
+@Description("Call of a phase of the generation of an SDK")
+// the phases are called thousands of times on large specifications, their stack trace is not recorded
+@StackTrace(false)
+@Threshold("1 ms")
+public class GenerationPhaseEvent extends Event {
+
+  private static final EventType EVENT_TYPE = EventType.getEventType(GenerationPhaseEvent.class);
+
+  @Label("Phase")
+  @Description("Name of the codegen method of the phase")
+  String phase;
+
+  /**
+   * @param phase the name of the codegen method of the phase
+   * @return the started event, null if the event is not enabled in any recording
+   */
+  static GenerationPhaseEvent begin(String phase) {
+    if (!EVENT_TYPE.isEnabled()) {
+      return null;
+    }
+    GenerationPhaseEvent event = new GenerationPhaseEvent();
+    event.phase = phase;
+    event.begin();
+    return event;
+  }
+
+}
@@ -15,22 +15,28 @@ import java.io.StringWriter;
 
 import java.lang.System;
 import java.lang.StringBuilder;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
-import java.util.ListIterator;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-
 public class LambdaHelper {
 
-  private static final String VALID_PROPERTY_REGEXP = "^(?!\\d)[\\w$]+$";
+  /** Line break and the spaces around it, used to split the fragments line by line */
+  public static final String LINE_SEPARATOR_REGEXP = " *\\r?\\n *";
 
   /**
    * Mustache lambda helper for camelizing strings.
@@ -59,6 +65,12 @@ public class LambdaHelper {
     }
   }
 
+  /**
+   * Lambda formatting the rendered fragment of its section.
+   * <p>
+   * A lambda instance is shared by all the templates, which can be rendered concurrently (parallelRendering): it must not
+   * keep any state between executions apart from thread-safe caches.
+   */
   public static abstract class CustomLambda implements Mustache.Lambda {
       @Override
       public void execute(Template.Fragment frag, Writer out) throws IOException {
@@ -70,20 +82,511 @@ public class LambdaHelper {
       public abstract String formatFragment(String fragment);
   }
 
+  /**
+   * Lambda processing the characters of the section as they are rendered, through a {@link StreamingFilter} wrapping the
+   * output, instead of buffering the whole section before formatting it.
+   */
+  public static abstract class StreamingLambda extends CustomLambda {
+      @Override
+      public void execute(Template.Fragment frag, Writer out) throws IOException {
+          final StreamingFilter filter = createFilter(out);
+          frag.execute(filter);
+          filter.finish();
+      }
+
+      @Override
+      public String formatFragment(String fragment) {
+          final StringWriter tempWriter = new StringWriter(fragment.length());
+          final StreamingFilter filter = createFilter(tempWriter);
+          try {
+            filter.write(fragment);
+            filter.finish();
+          } catch (IOException e) {
+            // cannot happen when writing to a StringWriter
+            throw new IllegalStateException(e);
+          }
+          return tempWriter.toString();
+      }
+
+      /**
+       * Creates the filter applied to a rendering of the section.
+       *
+       * @param out the writer receiving the formatted section
+       * @return a new filter, used for a single rendering
+       */
+      protected abstract StreamingFilter createFilter(Writer out);
+  }
+
+  /**
+   * Writer formatting the characters written to it before forwarding them to the underlying writer.
+   * <p>
+   * {@link #finish()} has to be called once the whole section has been written, to flush the characters the filter may
+   * still hold. Closing the filter does not close the underlying writer.
+   */
+  public static abstract class StreamingFilter extends Writer {
+      protected final Writer out;
+
+      protected StreamingFilter(Writer out) {
+          this.out = out;
+      }
+
+      /**
+       * Processes the next character of the section.
+       *
+       * @param c the character written to the filter
+       */
+      protected abstract void process(char c) throws IOException;
+
+      /**
+       * Writes the characters held by the filter once the whole section has been processed.
+       */
+      public void finish() throws IOException {
+      }
+
+      @Override
+      public void write(int c) throws IOException {
+          process((char) c);
+      }
+
+      @Override
+      public void write(char[] cbuf, int off, int len) throws IOException {
+          for (int i = off; i < off + len; i++) {
+            process(cbuf[i]);
+          }
+      }
+
+      @Override
+      public void write(String str, int off, int len) throws IOException {
+          for (int i = off; i < off + len; i++) {
+            process(str.charAt(i));
+          }
+      }
+
+      @Override
+      public void flush() throws IOException {
+          out.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+          finish();
+      }
+  }
+
+  /**
+   * Filter splitting the section into segments separated by {@link LambdaHelper#LINE_SEPARATOR_REGEXP} (a line break
+   * and the spaces around it), as String.split would do.
+   */
+  private static abstract class LineSegmentFilter extends StreamingFilter {
+      /** Spaces which are part of the next separator if a line break follows */
+      private int pendingSpaces;
+
+      /** Whether a carriage return, part of the next separator if a line feed follows, is pending */
+      private boolean pendingCarriageReturn;
+
+      /** Whether the leading spaces of the segment are part of the previous separator */
+      private boolean afterSeparator;
+
+      protected LineSegmentFilter(Writer out) {
+          super(out);
+      }
+
+      /** Receives the next character of the current segment */
+      protected abstract void writeSegmentCharacter(char c) throws IOException;
+
+      /** Called at the end of each segment followed by a separator */
+      protected abstract void endSegment() throws IOException;
+
+      /** Called at the end of the last segment of the section */
+      protected abstract void endLastSegment() throws IOException;
+
+      @Override
+      protected void process(char c) throws IOException {
+          if (c == ' ') {
+            if (pendingCarriageReturn) {
+              writePending();
+            }
+            pendingSpaces++;
+          } else if (c == '\r') {
+            if (pendingCarriageReturn) {
+              writePending();
+            }
+            pendingCarriageReturn = true;
+          } else if (c == '\n') {
+            pendingSpaces = 0;
+            pendingCarriageReturn = false;
+            afterSeparator = true;
+            endSegment();
+          } else {
+            writePending();
+            afterSeparator = false;
+            writeSegmentCharacter(c);
+          }
+      }
+
+      @Override
+      public void finish() throws IOException {
+          writePending();
+          endLastSegment();
+      }
+
+      private void writePending() throws IOException {
+          if (!afterSeparator) {
+            for (int i = 0; i < pendingSpaces; i++) {
+              writeSegmentCharacter(' ');
+            }
+          }
+          pendingSpaces = 0;
+          if (pendingCarriageReturn) {
+            pendingCarriageReturn = false;
+            afterSeparator = false;
+            writeSegmentCharacter('\r');
+          }
+      }
+  }
+
+  /**
+   * Caches the results of a lambda which is a pure function of its fragment (e.g. kebabCase), the templates format the
+   * same model and operation names over and over.
+   * <p>
+   * The cache is bounded and keeps the most recently used fragments, the hits and misses are counted for reporting.
+   */
+  public static class MemoizedLambda extends CustomLambda {
+      private final CustomLambda lambda;
+
+      private final Map<String, String> cache;
+
+      private final AtomicLong hits = new AtomicLong();
+
+      private final AtomicLong misses = new AtomicLong();
+
+      /**
+       * @param lambda the pure lambda to cache
+       * @param cacheSize the maximum number of fragments kept in the cache
+       */
+      public MemoizedLambda(CustomLambda lambda, int cacheSize) {
+          this.lambda = lambda;
+          this.cache = createLruCache(cacheSize);
+      }
+
+      @Override
+      public String formatFragment(String fragment) {
+          String result = cache.get(fragment);
+          if (result != null) {
+            hits.incrementAndGet();
+            return result;
+          }
+          misses.incrementAndGet();
+          result = lambda.formatFragment(fragment);
+          cache.put(fragment, result);
+          return result;
+      }
+
+      public long getHits() {
+          return hits.get();
+      }
+
+      public long getMisses() {
+          return misses.get();
+      }
+  }
+
+  /**
+   * Lambda applying several lambdas in a single rendering, as if they were nested in the template: the pipeline of
+   * (noEmptyLines, trimComma) renders as {{#noEmptyLines}}{{#trimComma}}...{{/trimComma}}{{/noEmptyLines}}.
+   * <p>
+   * The streaming lambdas are chained so each character goes through all of them as it is rendered, the other lambdas
+   * buffer their input and format it once complete.
+   */
+  public static class PipelineLambda extends StreamingLambda {
+      private final List<CustomLambda> lambdas;
+
+      /**
+       * @param lambdas the lambdas, from the outermost to the innermost
+       */
+      public PipelineLambda(List<CustomLambda> lambdas) {
+          if (lambdas.isEmpty()) {
+            throw new IllegalArgumentException("A lambda pipeline requires at least one lambda");
+          }
+          this.lambdas = new ArrayList<CustomLambda>(lambdas);
+      }
+
+      @Override
+      protected StreamingFilter createFilter(Writer out) {
+          final StreamingFilter[] filters = new StreamingFilter[lambdas.size()];
+          Writer next = out;
+          for (int i = 0; i < filters.length; i++) {
+            final CustomLambda lambda = lambdas.get(i);
+            filters[i] = lambda instanceof StreamingLambda ? ((StreamingLambda) lambda).createFilter(next) : new StreamingFilter(next) {
+              private final StringBuilder fragment = new StringBuilder();
+
+              @Override
+              protected void process(char c) {
+                fragment.append(c);
+              }
+
+              @Override
+              public void finish() throws IOException {
+                out.write(lambda.formatFragment(fragment.toString()));
+              }
+            };
+            next = filters[i];
+          }
+          return new StreamingFilter(out) {
+            @Override
+            protected void process(char c) throws IOException {
+              filters[filters.length - 1].write(c);
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+              filters[filters.length - 1].write(cbuf, off, len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException {
+              filters[filters.length - 1].write(str, off, len);
+            }
+
+            @Override
+            public void finish() throws IOException {
+              // the inner filters flush their remaining characters into the outer ones
+              for (int i = filters.length - 1; i >= 0; i--) {
+                filters[i].finish();
+              }
+            }
+          };
+      }
+  }
+
+  /**
+   * Evaluates the arithmetic expression of the fragment (e.g. {{#simpleMath}}{{index}} + 1{{/simpleMath}}).
+   * <p>
+   * Supports decimal numbers (with an optional exponent), the + - * / % operators, unary signs and parentheses, and
+   * formats the result as JavaScript would. An expression that cannot be evaluated is rendered as "Invalid Math".
+   * <p>
+   * Differences with the JavaScript evaluation: the hexadecimal, octal and binary literals and the ** operator are
+   * invalid, and the legacy octal literals (e.g. 010) are read as decimal numbers.
+   */
   public static class SimpleMathLambda extends CustomLambda {
 
+      private static final String INVALID_MATH = "Invalid Math";
+
+      /** Maximum number of evaluated fragments kept in the cache */
+      private static final int CACHE_SIZE = 256;
+
+      /** Results of the last evaluated fragments, the templates evaluate the same expressions over and over */
+      private final Map<String, String> cache = createLruCache(CACHE_SIZE);
+
       public SimpleMathLambda() {}
 
       @Override
       public String formatFragment(String fragment) {
-          final ScriptEngineManager engineManager = new ScriptEngineManager();
-          final ScriptEngine engine = engineManager.getEngineByName("JavaScript");
-          String result = "Invalid Math";
-          try {
-            result = engine.eval(fragment).toString();
-          } catch(Exception e) {}
+          String result = cache.get(fragment);
+          if (result == null) {
+            result = evaluate(fragment);
+            cache.put(fragment, result);
+          }
           return result;
       }
+
+      private static String evaluate(String expression) {
+          ExpressionParser parser = new ExpressionParser(expression);
+          try {
+            double value = parser.parseExpression();
+            parser.skipWhitespaces();
+            if (parser.position != expression.length()) {
+              return INVALID_MATH;
+            }
+            return formatNumber(value);
+          } catch (IllegalArgumentException e) {
+            return INVALID_MATH;
+          }
+      }
+
+      /**
+       * Formats the number as the JavaScript Number.prototype.toString: plain notation for 1e-6 <= |value| < 1e21,
+       * exponent notation otherwise (e.g. 1.5e-7, 1e+21)
+       */
+      private static String formatNumber(double value) {
+          if (Double.isNaN(value)) {
+            return "NaN";
+          }
+          if (Double.isInfinite(value)) {
+            return value > 0 ? "Infinity" : "-Infinity";
+          }
+          if (value == Math.rint(value) && Math.abs(value) <= ExpressionParser.MAX_EXACT_INTEGER) {
+            // also turns -0 into 0
+            return Long.toString((long) value);
+          }
+          // shortest digits identifying the double, as JavaScript (e.g. 2^55 is written 36028797018963970), which
+          // Double.toString does not always give before Java 19
+          BigDecimal exactValue = new BigDecimal(value);
+          BigDecimal decimal = null;
+          for (int precision = 1; decimal == null; precision++) {
+            BigDecimal rounded = exactValue.round(new MathContext(precision, RoundingMode.HALF_EVEN));
+            if (rounded.doubleValue() == value) {
+              decimal = rounded.stripTrailingZeros();
+            }
+          }
+          String digits = decimal.unscaledValue().abs().toString();
+          int exponent = digits.length() - 1 - decimal.scale();
+          if (exponent >= -6 && exponent < 21) {
+            return decimal.toPlainString();
+          }
+          return (value < 0 ? "-" : "") + digits.charAt(0) + (digits.length() > 1 ? "." + digits.substring(1) : "")
+            + (exponent < 0 ? "e-" : "e+") + Math.abs(exponent);
+      }
+
+      /**
+       * Recursive descent parser evaluating the expression while reading it:
+       * expression := term (('+' | '-') term)*
+       * term := factor (('*' | '/' | '%') factor)*
+       * factor := ('+' | '-') factor | '(' expression ')' | number
+       */
+      private static class ExpressionParser {
+          /** Highest power of ten exactly represented as a double */
+          private static final int MAX_EXACT_POWER_OF_TEN = 22;
+
+          /** Highest integer up to which every integer is exactly represented as a double */
+          private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+          private final String expression;
+
+          private int position;
+
+          private ExpressionParser(String expression) {
+            this.expression = expression;
+          }
+
+          private double parseExpression() {
+            double value = parseTerm();
+            while (true) {
+              char operator = peek();
+              if (operator == '+') {
+                readSign();
+                value += parseTerm();
+              } else if (operator == '-') {
+                readSign();
+                value -= parseTerm();
+              } else {
+                return value;
+              }
+            }
+          }
+
+          private double parseTerm() {
+            double value = parseFactor();
+            while (true) {
+              char operator = peek();
+              if (operator == '*') {
+                position++;
+                value *= parseFactor();
+              } else if (operator == '/') {
+                position++;
+                value /= parseFactor();
+              } else if (operator == '%') {
+                position++;
+                value %= parseFactor();
+              } else {
+                return value;
+              }
+            }
+          }
+
+          private double parseFactor() {
+            char current = peek();
+            if (current == '+') {
+              readSign();
+              return parseFactor();
+            }
+            if (current == '-') {
+              readSign();
+              return -parseFactor();
+            }
+            if (current == '(') {
+              position++;
+              double value = parseExpression();
+              if (peek() != ')') {
+                throw new IllegalArgumentException("Missing closing parenthesis at " + position);
+              }
+              position++;
+              return value;
+            }
+            return parseNumber();
+          }
+
+          private double parseNumber() {
+            int start = position;
+            long mantissa = 0;
+            int decimals = 0;
+            boolean hasDigits = false;
+            boolean hasDot = false;
+            boolean exact = true;
+            while (position < expression.length()) {
+              char current = expression.charAt(position);
+              if (current >= '0' && current <= '9') {
+                hasDigits = true;
+                if (mantissa < MAX_EXACT_INTEGER / 10) {
+                  mantissa = mantissa * 10 + (current - '0');
+                  if (hasDot) {
+                    decimals++;
+                  }
+                } else {
+                  exact = false;
+                }
+              } else if (current == '.' && !hasDot) {
+                hasDot = true;
+              } else {
+                break;
+              }
+              position++;
+            }
+            if (!hasDigits) {
+              throw new IllegalArgumentException("Number expected at " + start);
+            }
+            if (position < expression.length() && (expression.charAt(position) == 'e' || expression.charAt(position) == 'E')) {
+              int exponentDigits = position + 1;
+              if (exponentDigits < expression.length() && (expression.charAt(exponentDigits) == '+' || expression.charAt(exponentDigits) == '-')) {
+                exponentDigits++;
+              }
+              int end = exponentDigits;
+              while (end < expression.length() && expression.charAt(end) >= '0' && expression.charAt(end) <= '9') {
+                end++;
+              }
+              if (end == exponentDigits) {
+                throw new IllegalArgumentException("Exponent expected at " + exponentDigits);
+              }
+              position = end;
+              return Double.parseDouble(expression.substring(start, position));
+            }
+            if (exact && decimals <= MAX_EXACT_POWER_OF_TEN) {
+              // both operands are exact so the division is correctly rounded
+              return decimals == 0 ? mantissa : mantissa / Math.pow(10, decimals);
+            }
+            return Double.parseDouble(expression.substring(start, position));
+          }
+
+          /** Reads a sign or an additive operator, ++ and -- being the JavaScript increment and decrement operators */
+          private void readSign() {
+            char sign = expression.charAt(position++);
+            if (position < expression.length() && expression.charAt(position) == sign) {
+              throw new IllegalArgumentException("Unsupported operator " + sign + sign + " at " + (position - 1));
+            }
+          }
+
+          /** Skips the whitespaces and returns the next character (0 at the end of the expression) */
+          private char peek() {
+            skipWhitespaces();
+            return position < expression.length() ? expression.charAt(position) : 0;
+          }
+
+          private void skipWhitespaces() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+              position++;
+            }
+          }
+      }
   }
 
   /**
@@ -98,7 +601,7 @@ public class LambdaHelper {
 
       @Override
       public String formatFragment(String fragment) {
-          return fragment.replaceAll("\\{([\\w_-]+)\\}", "\\${data['$1']}");
+          return RegexPatterns.PATH_PARAMETER_NAME.matcher(fragment).replaceAll("\\${data['$1']}");
       }
 
   }
@@ -115,7 +618,7 @@ public class LambdaHelper {
 
       @Override
       public String formatFragment(String fragment) {
-          return fragment.replaceAll("\\{([\\w_-]+)\\}", "\\${serializedPathParams['$1']}");
+          return RegexPatterns.PATH_PARAMETER_NAME.matcher(fragment).replaceAll("\\${serializedPathParams['$1']}");
       }
 
   }
@@ -132,7 +635,7 @@ public class LambdaHelper {
 
       @Override
       public String formatFragment(String fragment) {
-          return fragment.replaceAll("\\{([\\w_-]+)\\}", "\\${this.piiParamTokens['$1'] || data['$1']}");
+          return RegexPatterns.PATH_PARAMETER_NAME.matcher(fragment).replaceAll("\\${this.piiParamTokens['$1'] || data['$1']}");
       }
   }
 
@@ -148,13 +651,13 @@ public class LambdaHelper {
 
       @Override
       public String formatFragment(String fragment) {
-          return fragment.replaceAll("\\{([\\w_-]+)\\}", "\\${this.piiParamTokens['$1'] || serializedPathParams['$1']}");
+          return RegexPatterns.PATH_PARAMETER_NAME.matcher(fragment).replaceAll("\\${this.piiParamTokens['$1'] || serializedPathParams['$1']}");
       }
   }
 
   public static class RemoveText extends CustomLambda {
 
-      private String text;
+      private final String text;
 
       public RemoveText(String text) {
         this.text = text;
@@ -169,15 +672,15 @@ public class LambdaHelper {
 
   public static class RemoveEndText extends CustomLambda {
 
-      private String text;
+      private final Pattern endText;
 
       public RemoveEndText(String text) {
-        this.text = text;
+        this.endText = Pattern.compile(text + "$");
       }
 
       @Override
       public String formatFragment(String fragment) {
-        return fragment.replaceAll(text + "$", "");
+        return endText.matcher(fragment).replaceAll("");
       }
 
   }
@@ -200,7 +703,7 @@ public class LambdaHelper {
     public String formatFragment(String fragment) {
       if (fragment.length() > 0) {
         String lowerFirst = Character.toLowerCase(fragment.charAt(0)) + fragment.substring(1);
-        return lowerFirst.replaceAll("([A-Z])", "-$1").toLowerCase();
+        return RegexPatterns.UPPERCASE_LETTER.matcher(lowerFirst).replaceAll("-$1").toLowerCase();
       }
       return "";
     }
@@ -214,32 +717,104 @@ public class LambdaHelper {
     public String formatFragment(String fragment) {
       if (fragment.length() > 0) {
         String lowerFirst = Character.toLowerCase(fragment.charAt(0)) + fragment.substring(1);
-        return lowerFirst.replaceAll("([A-Z])", "_$1").toUpperCase();
+        return RegexPatterns.UPPERCASE_LETTER.matcher(lowerFirst).replaceAll("_$1").toUpperCase();
       }
       return "";
     }
   }
 
-  public static class TrimRightLambda extends CustomLambda {
+  /**
+   * Removes the given characters (whitespaces if null) from the end of the fragment, as StringUtils.stripEnd.
+   */
+  public static class TrimRightLambda extends StreamingLambda {
       private final String characters;
 
       public TrimRightLambda(String characters) {
           this.characters = characters;
       }
 
+      private boolean isStripped(char c) {
+          return characters == null ? Character.isWhitespace(c) : characters.indexOf(c) >= 0;
+      }
+
       @Override
       public String formatFragment(String fragment) {
-          return StringUtils.stripEnd(fragment, characters);
+          int end = fragment.length();
+          while (end > 0 && isStripped(fragment.charAt(end - 1))) {
+            end--;
+          }
+          return fragment.substring(0, end);
+      }
+
+      @Override
+      protected StreamingFilter createFilter(Writer out) {
+          return new StreamingFilter(out) {
+            /** Characters to strip, written only if followed by another character */
+            private final StringBuilder pending = new StringBuilder();
+
+            @Override
+            protected void process(char c) throws IOException {
+              if (isStripped(c)) {
+                pending.append(c);
+              } else {
+                writePending();
+                out.write(c);
+              }
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException {
+              // the characters up to the last kept one are written at once
+              int end = off + len;
+              int keptEnd = end;
+              while (keptEnd > off && isStripped(str.charAt(keptEnd - 1))) {
+                keptEnd--;
+              }
+              if (keptEnd > off) {
+                writePending();
+                out.write(str, off, keptEnd - off);
+              }
+              pending.append(str, keptEnd, end);
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+              int end = off + len;
+              int keptEnd = end;
+              while (keptEnd > off && isStripped(cbuf[keptEnd - 1])) {
+                keptEnd--;
+              }
+              if (keptEnd > off) {
+                writePending();
+                out.write(cbuf, off, keptEnd - off);
+              }
+              pending.append(cbuf, keptEnd, end - keptEnd);
+            }
+
+            private void writePending() throws IOException {
+              if (pending.length() > 0) {
+                out.append(pending);
+                pending.setLength(0);
+              }
+            }
+          };
       }
   }
 
-  public static class CleanBreakLineLambda extends CustomLambda {
+  public static class CleanBreakLineLambda extends StreamingLambda {
       public CleanBreakLineLambda() {
       }
 
       @Override
-      public String formatFragment(String fragment) {
-          return fragment.replaceAll("[\\t\\n\\r]", "");
+      protected StreamingFilter createFilter(Writer out) {
+          return new StreamingFilter(out) {
+            @Override
+            protected void process(char c) throws IOException {
+              if (c != '\t' && c != '\n' && c != '\r') {
+                out.write(c);
+              }
+            }
+          };
       }
   }
 
@@ -249,40 +824,64 @@ public class LambdaHelper {
 
       @Override
       public String formatFragment(String fragment) {
-          return fragment.replaceAll("\\[\\]", "");
+          return fragment.replace("[]", "");
       }
   }
 
+  /**
+   * Appends an s to the fragment, replacing its final y by ie, as the "^(.*)y$" regexp: only a single line fragment,
+   * optionally followed by a line terminator, can end with the replaced y.
+   */
   public static class Plurialize extends CustomLambda {
       public Plurialize() {
       }
 
       @Override
       public String formatFragment(String fragment) {
-          return fragment.replaceAll("^(.*)y$", "$1ie") + "s";
+          int end = fragment.length();
+          if (fragment.endsWith("\r\n")) {
+            end -= 2;
+          } else if (end > 0 && isLineTerminator(fragment.charAt(end - 1))) {
+            end--;
+          }
+          if (end == 0 || fragment.charAt(end - 1) != 'y') {
+            return fragment + "s";
+          }
+          for (int i = 0; i < end - 1; i++) {
+            if (isLineTerminator(fragment.charAt(i))) {
+              return fragment + "s";
+            }
+          }
+          return new StringBuilder(fragment.length() + 2).append(fragment, 0, end - 1).append("ie")
+            .append(fragment, end, fragment.length()).append('s').toString();
+      }
+
+      /** Characters not matched by the . regexp class */
+      private static boolean isLineTerminator(char c) {
+          return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
       }
   }
 
   public static class CleanEmptyImportExportLambda extends CustomLambda {
-      private final String type;
+      private final Pattern emptyImportExport;
 
       public CleanEmptyImportExportLambda() {
-        this.type = "(im|ex)port";
+        this("(im|ex)port");
       }
 
       public CleanEmptyImportExportLambda(String type) {
-        this.type = type;
+        this.emptyImportExport = Pattern.compile("(?m)" + type + " +\\{ *\\} *(as +[^ ]*)? from .*\r?\n");
       }
 
       @Override
       public String formatFragment(String fragment) {
-        return fragment.replaceAll("(?m)" + type + " +\\{ *\\} *(as +[^ ]*)? from .*\r?\n", "");
+        return emptyImportExport.matcher(fragment).replaceAll("");
       }
   }
 
   public static class ReplaceWithTextIfEmpty extends CustomLambda {
 
-    private String text;
+    private final String text;
 
     public ReplaceWithTextIfEmpty(String text) { this.text = text; }
 
@@ -296,109 +895,185 @@ public class LambdaHelper {
 
   }
 
-  public static class AddTabs extends CustomLambda {
-      private final int  numberOfTabs;
-      private final String tabString;
+  /**
+   * Indents each non-empty line of the fragment, removing the spaces around the line breaks.
+   */
+  public static class AddTabs extends StreamingLambda {
+      /** Indentation written before each line */
+      private final String indentation;
+
+      private final String lineSeparator = System.getProperty("line.separator");
 
       public AddTabs(int numberOfTabs) {
-        this.numberOfTabs = numberOfTabs;
-        this.tabString = "  ";
+        this(numberOfTabs, "  ");
       }
 
       public AddTabs(int numberOfTabs, String tabString) {
-        this.numberOfTabs = numberOfTabs;
-        this.tabString = tabString;
+        StringBuilder indentationBuilder = new StringBuilder();
+        for (int i = 0; i < numberOfTabs; i++) {
+          indentationBuilder.append(tabString);
+        }
+        this.indentation = indentationBuilder.toString();
       }
 
       @Override
-      public String formatFragment(String fragment) {
-        String[] listParams = fragment.split(" *\\r?\\n *");
-        List<String> al = new ArrayList<String>(Arrays.asList(listParams));
+      protected StreamingFilter createFilter(Writer out) {
+        return new LineSegmentFilter(out) {
+          /** Current line, written at once with its indentation */
+          private char[] line = new char[128];
 
-        StringBuilder res = new StringBuilder("");
+          private int lineLength;
 
-        for (String s : al)
-        {
-          if ("".equals(s)) {
-            continue;
+          @Override
+          protected void writeSegmentCharacter(char c) {
+            if (lineLength == line.length) {
+              line = Arrays.copyOf(line, lineLength * 2);
+            }
+            line[lineLength++] = c;
           }
-          for (int i = 0; i < numberOfTabs; i++) {
-            res.append(tabString);
+
+          @Override
+          protected void endSegment() throws IOException {
+            if (lineLength > 0) {
+              out.write(indentation);
+              out.write(line, 0, lineLength);
+              out.write(lineSeparator);
+              lineLength = 0;
+            }
           }
-          res.append(s).append(System.getProperty("line.separator"));
-        }
 
-        return res.toString();
+          @Override
+          protected void endLastSegment() throws IOException {
+            endSegment();
+          }
+        };
       }
   }
 
-  public static class RemoveDuplicate extends CustomLambda {
+  /**
+   * Splits the fragment with the separator regexp, removes the duplicated items and joins them with the new separator.
+   * <p>
+   * The items are streamed when the separator is {@link LambdaHelper#LINE_SEPARATOR_REGEXP}, the whole fragment is
+   * buffered for any other separator.
+   */
+  public static class RemoveDuplicate extends StreamingLambda {
       private final String separator;
       private final String newSeparator;
+      private final Pattern separatorPattern;
 
       public RemoveDuplicate(String separator) {
-        this.separator = separator;
-        this.newSeparator = separator;
+        this(separator, separator);
       }
 
       public RemoveDuplicate(String separator, String newSeparator) {
         this.separator = separator;
         this.newSeparator = newSeparator;
+        this.separatorPattern = Pattern.compile(separator);
       }
 
       @Override
-      public String formatFragment(String fragment) {
-        String[] listParams = fragment.split(separator);
-        List<String> al = new ArrayList<String>(Arrays.asList(listParams));
-        al = new ArrayList<String>(new LinkedHashSet<String>(al));
-
-        StringBuilder res = new StringBuilder("");
-        String prefix = "";
+      protected StreamingFilter createFilter(Writer out) {
+        if (!LINE_SEPARATOR_REGEXP.equals(separator)) {
+          return new StreamingFilter(out) {
+            private final StringBuilder fragment = new StringBuilder();
+
+            @Override
+            protected void process(char c) {
+              fragment.append(c);
+            }
 
-        for (String s : al)
-        {
-          res.append(prefix).append(s);
-          prefix = newSeparator;
+            @Override
+            public void finish() throws IOException {
+              out.write(removeDuplicates(fragment.toString()));
+            }
+          };
         }
+        return new LineSegmentFilter(out) {
+          private final StringBuilder item = new StringBuilder();
+          private final Set<String> writtenItems = new HashSet<String>();
+
+          /** Empty items are only written if followed by a non-empty one, as String.split drops the trailing ones */
+          private boolean pendingEmptyItem;
+
+          @Override
+          protected void writeSegmentCharacter(char c) {
+            item.append(c);
+          }
+
+          @Override
+          protected void endSegment() throws IOException {
+            if (item.length() == 0) {
+              pendingEmptyItem = true;
+            } else {
+              endLastSegment();
+            }
+          }
 
+          @Override
+          protected void endLastSegment() throws IOException {
+            if (item.length() > 0) {
+              if (pendingEmptyItem) {
+                writeItem("");
+                pendingEmptyItem = false;
+              }
+              writeItem(item.toString());
+              item.setLength(0);
+            }
+          }
+
+          private void writeItem(String value) throws IOException {
+            if (writtenItems.add(value)) {
+              if (writtenItems.size() > 1) {
+                out.write(newSeparator);
+              }
+              out.write(value);
+            }
+          }
+        };
+      }
+
+      private String removeDuplicates(String fragment) {
+        String[] items = separatorPattern.split(fragment);
+        Set<String> writtenItems = new HashSet<String>(items.length * 2);
+        StringBuilder res = new StringBuilder(fragment.length());
+        for (String item : items) {
+          if (writtenItems.add(item)) {
+            if (writtenItems.size() > 1) {
+              res.append(newSeparator);
+            }
+            res.append(item);
+          }
+        }
         return res.toString();
       }
   }
 
+  /**
+   * Splits the fragment with the separator regexp and keeps the first parameter of each name (the text before the
+   * colon), joined with the separator.
+   */
   public static class RemoveDuplicateParams extends CustomLambda {
       private final String separator;
+      private final Pattern separatorPattern;
 
       public RemoveDuplicateParams(String separator) {
         this.separator = separator;
+        this.separatorPattern = Pattern.compile(separator);
       }
 
       @Override
       public String formatFragment(String fragment) {
-        String[] listParams = fragment.split(separator);
-        List<String> al = new ArrayList<String>(Arrays.asList(listParams));
-        al = new ArrayList<String>(new LinkedHashSet<String>(al));
-
-        List<String> check = new ArrayList<String>();
-        StringBuilder res = new StringBuilder("");
-        String prefix = "";
-
-        for (String s : al)
-        {
-          boolean shouldBeKept = true;
-          for (String c : check)
-          {
-            String paramName = StringUtils.substringBefore(s, ":");
-            shouldBeKept &= !StringUtils.substringBefore(c, ":").equals(paramName);
+        String[] params = separatorPattern.split(fragment);
+        Set<String> paramNames = new HashSet<String>(params.length * 2);
+        StringBuilder res = new StringBuilder(fragment.length());
+        for (String param : params) {
+          if (paramNames.add(StringUtils.substringBefore(param, ":"))) {
+            if (paramNames.size() > 1) {
+              res.append(separator);
+            }
+            res.append(param);
           }
-
-          if (!shouldBeKept)
-            continue;
-
-          check.add(s);
-          res.append(prefix).append(s);
-          prefix = separator;
         }
-
         return res.toString();
       }
   }
@@ -418,9 +1093,9 @@ public class LambdaHelper {
 
     @Override
     public String formatFragment(String fragment) {
-      String classNameNoApi = fragment.replaceFirst("(\\w*)Api$", "$1");
+      String classNameNoApi = RegexPatterns.API_CLASS_SUFFIX.matcher(fragment).replaceFirst("$1");
       String lowerFirst = Character.toLowerCase(classNameNoApi.charAt(0)) + classNameNoApi.substring(1);
-      return lowerFirst.replaceAll("([A-Z])", "-$1").toLowerCase();
+      return RegexPatterns.UPPERCASE_LETTER.matcher(lowerFirst).replaceAll("-$1").toLowerCase();
     }
   }
 
@@ -438,7 +1113,7 @@ public class LambdaHelper {
     }
 
     public Pattern getPattern() {
-      return Pattern.compile("\\/([\\w-]+\\/?){1,2}\\/?");
+      return RegexPatterns.RESOURCE_PATH;
     }
 
     public String handleMatcher(String format, Matcher resourceMatcher) {
@@ -453,8 +1128,7 @@ public class LambdaHelper {
     }
 
     public String hyphenToCamel(String hyphenString) {
-      Pattern p = Pattern.compile("-(\\w)");
-      Matcher m = p.matcher(hyphenString);
+      Matcher m = RegexPatterns.HYPHEN_WORD.matcher(hyphenString);
       StringBuffer sb = new StringBuffer();
       while (m.find()) {
         m.appendReplacement(sb, "");
@@ -468,7 +1142,7 @@ public class LambdaHelper {
   public static class AreaFromPath extends ResourceFromPath {
     @Override
     public Pattern getPattern() {
-      return Pattern.compile("\\/([\\w-]+)\\/?");
+      return RegexPatterns.AREA_PATH;
     }
 
     @Override
@@ -479,62 +1153,450 @@ public class LambdaHelper {
   }
 
     /**
-     * Remove empty lines for the fragment
+     * Removes the lines containing only spaces and tabulations.
      */
-    public static class RemoveEmptyLines extends CustomLambda {
+    public static class RemoveEmptyLines extends StreamingLambda {
 
         public RemoveEmptyLines() {
         }
 
-        @Override public String formatFragment(String fragment) {
-            String filteredFragment =  Pattern.compile("^(?:[\\t ]*(?:\\r?\\n|\\r))+", Pattern.MULTILINE).matcher(fragment).replaceAll("");
-            return filteredFragment;
+        @Override
+        protected StreamingFilter createFilter(Writer out) {
+            return new StreamingFilter(out) {
+                /** Spaces and tabulations at the start of the current line, dropped if the line is empty */
+                private final StringBuilder pending = new StringBuilder();
+
+                private boolean lineStart = true;
+
+                /** Whether the last written character is a carriage return, a following line feed belongs to the same line */
+                private boolean afterCarriageReturn;
+
+                /** Whether the last removed line ended with a carriage return, a following line feed is removed as well */
+                private boolean skipLineFeed;
+
+                @Override
+                protected void process(char c) throws IOException {
+                    if (skipLineFeed) {
+                        skipLineFeed = false;
+                        if (c == '\n') {
+                            return;
+                        }
+                    }
+                    if (afterCarriageReturn) {
+                        afterCarriageReturn = false;
+                        lineStart = true;
+                        if (c == '\n') {
+                            out.write(c);
+                            return;
+                        }
+                    }
+                    if (lineStart) {
+                        if (c == ' ' || c == '\t') {
+                            pending.append(c);
+                            return;
+                        }
+                        if (c == '\n' || c == '\r') {
+                            pending.setLength(0);
+                            skipLineFeed = c == '\r';
+                            return;
+                        }
+                        out.append(pending);
+                        pending.setLength(0);
+                        lineStart = false;
+                    }
+                    out.write(c);
+                    if (c == '\r') {
+                        afterCarriageReturn = true;
+                    } else if (isLineTerminator(c)) {
+                        lineStart = true;
+                    }
+                }
+
+                @Override
+                public void finish() throws IOException {
+                    out.append(pending);
+                    pending.setLength(0);
+                }
+            };
         }
     }
 
     /**
      * Remove unused imports to match the linter We are not able to get this information from the model itself, it's a
-     * bit sad but the solution is to postprocess the fragment with a regexp
+     * bit sad but the solution is to postprocess the fragment.
+     * <p>
+     * The fragment is scanned once to collect the identifiers used outside of the import statements and comments, then
+     * only the import lines declaring an unused identifier are rewritten, which keeps the processing linear in the size
+     * of the fragment whatever the number of imports.
      */
     public static class RemoveUnusedImports extends CustomLambda {
 
+        /** Single line import statement with named imports, the first group being the content of the braces */
+        private static final Pattern IMPORT_LINE_PATTERN = Pattern.compile("import\\s+(?:type\\s+)?\\{(.*)}.*;");
+
+        /** Imported name, optionally prefixed by the type keyword */
+        private static final Pattern IMPORTED_NAME_PATTERN = Pattern.compile("(?:type\\s+)?(\\w+)");
+
+        /** Beginning of an import statement with named imports */
+        private static final Pattern IMPORT_START_PATTERN = Pattern.compile("import\\s+(?:type\\s+)?\\{");
+
+        /** Identifier */
+        private static final Pattern WORD_PATTERN = Pattern.compile("\\w+");
+
+        /** Import statement left without any named import */
+        private static final Pattern EMPTY_IMPORT_PATTERN = Pattern.compile("import\\s+(?:type\\s+)?\\{(\\s,?)*}\\s+from\\s+.*;\n");
+
         public RemoveUnusedImports() {
         }
 
         @Override public String formatFragment(String fragment) {
             //Retrieve all the imported classes
-            List<String> allMatches = new ArrayList<String>();
-            Matcher importLinesMatcher = Pattern.compile("import\\s+(?:type\\s+)?\\{(.*)}.*;").matcher(fragment);
+            List<String> importedClasses = new ArrayList<String>();
+            Matcher importLinesMatcher = IMPORT_LINE_PATTERN.matcher(fragment);
             while (importLinesMatcher.find()) {
-              Matcher importsMatcher = Pattern.compile("((?:type\\s+)?\\w+)").matcher(importLinesMatcher.group(1));
+              Matcher importsMatcher = IMPORTED_NAME_PATTERN.matcher(importLinesMatcher.group(1));
               while (importsMatcher.find()) {
-                allMatches.add(importsMatcher.group(1));
+                importedClasses.add(importsMatcher.group(1));
+              }
+            }
+            if (importedClasses.isEmpty()) {
+              return EMPTY_IMPORT_PATTERN.matcher(fragment).replaceAll("");
+            }
+
+            Set<String> candidates = new HashSet<String>(importedClasses);
+            Set<String> usedIdentifiers = getUsedIdentifiers(fragment, candidates);
+            ImportLines importLines = null;
+            for (String importedClass : importedClasses) {
+              if (usedIdentifiers.contains(importedClass)) {
+                continue;
+              }
+              //Import unused found, removing it
+              if (importLines == null) {
+                importLines = new ImportLines(fragment);
+              }
+              if (!importLines.remove(importedClass)) {
+                // Unusual layout (name followed by a line break, name starting the line after an import...), fall back on
+                // the regexp based removal which can also modify the code lines
+                fragment = importLines.toString();
+                importLines = null;
+                fragment = removeImport(fragment, importedClass);
+                usedIdentifiers = getUsedIdentifiers(fragment, candidates);
+              }
+            }
+            if (importLines != null) {
+              fragment = importLines.toString();
+            }
+          //If an import is empty, remove it
+          return EMPTY_IMPORT_PATTERN.matcher(fragment).replaceAll("");
+        }
+
+        /**
+         * Removes an imported name with a regexp specific to the name, only used for the unusual import layouts.
+         *
+         * @param fragment the fragment to modify
+         * @param importedClass the imported name to remove
+         * @return the fragment without the imported name
+         */
+        private static String removeImport(String fragment, String importedClass) {
+          return Pattern.compile("(.*import\\s+(?:type\\s+)?\\{(?:.*\\W)?)(?:type\\s+)?" + importedClass + "\\s*,?\\s*(\\W.*)")
+            .matcher(fragment)
+            .replaceAll("$1$2");
+        }
+
+        /**
+         * Collects, in a single pass, the imported names used in the code of the fragment.
+         * <p>
+         * A name is used when it is found as a whole word, not preceded by a quote nor followed by a slash (to ignore
+         * module paths), on a line which is neither an import statement nor a comment.
+         *
+         * @param fragment the fragment to analyze
+         * @param candidates the imported names
+         * @return the subset of the candidates used in the fragment
+         */
+        private static Set<String> getUsedIdentifiers(String fragment, Set<String> candidates) {
+            int length = fragment.length();
+            // Compute for each line start whether the line is an import or a comment line, walking backward to know the
+            // first non whitespace character following each line start
+            boolean[] ignoredLineStart = new boolean[length + 1];
+            int nextNonWhitespace = length;
+            for (int index = length - 1; index >= 0; index--) {
+              if (!isWhitespace(fragment.charAt(index))) {
+                nextNonWhitespace = index;
+              }
+              if (isLineStart(fragment, index)) {
+                ignoredLineStart[index] = fragment.startsWith("/*", index)
+                  || (nextNonWhitespace < length && fragment.charAt(nextNonWhitespace) == '*')
+                  || isImportStart(fragment, nextNonWhitespace);
               }
             }
-            //For each class check if the import is used
-            ListIterator<String> litr = allMatches.listIterator();
-            while (litr.hasNext()) {
-                String importedClass = litr.next();
-                Matcher importTypeMatcher = Pattern.compile("(type\\s+)").matcher(importedClass);
-                if (importTypeMatcher.find()) {
-                  importedClass = importTypeMatcher.replaceAll("");
+
+            Set<String> used = new HashSet<String>();
+            int lineStart = 0;
+            int previousLineStart = -1;
+            int index = 0;
+            while (index < length) {
+              char current = fragment.charAt(index);
+              if (!isWordCharacter(current)) {
+                if (isLineStart(fragment, index + 1) && index + 1 < length) {
+                  previousLineStart = lineStart;
+                  lineStart = index + 1;
                 }
-                int count =0;
-                //Looking if the import is used in the fragment
-                Matcher m2 = Pattern.compile(
-                  "^(?!(\\s*import\\s+(?:type\\s+)?\\{)|(\\s*\\*)|(/\\*))(?:.*[^\\w'\"])?"+ importedClass + "[^\\w\\/]",
-                  Pattern.MULTILINE
-                ).matcher(fragment);
-                if (!m2.find()) {
-                    //Import unused found, removing it
-                    fragment = Pattern.compile("(.*import\\s+(?:type\\s+)?\\{(?:.*\\W)?)(?:type\\s+)?" + importedClass +"\\s*,?\\s*(\\W.*)")
-                      .matcher(fragment)
-                      .replaceAll("$1$2");
+                index++;
+                continue;
+              }
+              int end = index + 1;
+              while (end < length && isWordCharacter(fragment.charAt(end))) {
+                end++;
+              }
+              if (end < length && fragment.charAt(end) != '/' && isUsage(fragment, index, lineStart, previousLineStart, ignoredLineStart)) {
+                String word = fragment.substring(index, end);
+                if (candidates.contains(word)) {
+                  used.add(word);
                 }
+              }
+              index = end;
             }
-          //If an import is empty, remove it
-          return Pattern.compile("import\\s+(?:type\\s+)?\\{(\\s,?)*}\\s+from\\s+.*;\n").matcher(fragment).replaceAll("");
+            return used;
+        }
+
+        /**
+         * Checks whether the word starting at the given index is a usage of an identifier (see {@link #getUsedIdentifiers}).
+         */
+        private static boolean isUsage(String fragment, int index, int lineStart, int previousLineStart, boolean[] ignoredLineStart) {
+            if (index == lineStart) {
+              if (!ignoredLineStart[lineStart]) {
+                return true;
+              }
+              // a word at the start of a line is also considered if the previous line is part of the code and
+              // ends with a single character line break
+              return previousLineStart >= 0 && !ignoredLineStart[previousLineStart]
+                && !(fragment.charAt(index - 1) == '\n' && index >= 2 && fragment.charAt(index - 2) == '\r');
+            }
+            char previous = fragment.charAt(index - 1);
+            return previous != '\'' && previous != '"' && !ignoredLineStart[lineStart];
+        }
+
+        private static boolean isImportStart(String fragment, int index) {
+            if (!fragment.startsWith("import", index)) {
+              return false;
+            }
+            int cursor = index + "import".length();
+            int afterWhitespaces = skipWhitespaces(fragment, cursor);
+            if (afterWhitespaces == cursor) {
+              return false;
+            }
+            if (fragment.startsWith("type", afterWhitespaces)) {
+              int afterType = skipWhitespaces(fragment, afterWhitespaces + "type".length());
+              if (afterType > afterWhitespaces + "type".length() && afterType < fragment.length() && fragment.charAt(afterType) == '{') {
+                return true;
+              }
+            }
+            return afterWhitespaces < fragment.length() && fragment.charAt(afterWhitespaces) == '{';
+        }
+
+        private static int skipWhitespaces(String fragment, int index) {
+            while (index < fragment.length() && isWhitespace(fragment.charAt(index))) {
+              index++;
+            }
+            return index;
+        }
+
+        /**
+         * Lines of a fragment, allowing to remove a named import from the import statements.
+         */
+        private static class ImportLines {
+
+            /** Content of the lines, without the line breaks */
+            private final List<StringBuilder> lines = new ArrayList<StringBuilder>();
+
+            /** Line break following each line (empty for the last one) */
+            private final List<String> lineBreaks = new ArrayList<String>();
+
+            /** Indexes of the import lines from which each name may be removed */
+            private final Map<String, List<Integer>> importLinesByName = new HashMap<String, List<Integer>>();
+
+            /** Whether an import line is followed by a line starting with the type keyword, which can precede any name */
+            private boolean hasTypeKeywordAfterImportLine;
+
+            ImportLines(String fragment) {
+              int length = fragment.length();
+              int lineStart = 0;
+              for (int index = 0; index <= length; index++) {
+                if (index == length || isLineTerminator(fragment.charAt(index))) {
+                  int lineEnd = index;
+                  if (index < length && fragment.charAt(index) == '\r' && index + 1 < length && fragment.charAt(index + 1) == '\n') {
+                    index++;
+                  }
+                  lines.add(new StringBuilder(fragment.substring(lineStart, lineEnd)));
+                  lineBreaks.add(fragment.substring(lineEnd, Math.min(index + 1, length)));
+                  lineStart = index + 1;
+                }
+              }
+              for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+                indexImportLine(lineIndex);
+              }
+            }
+
+            private void indexImportLine(int lineIndex) {
+              StringBuilder line = lines.get(lineIndex);
+              Matcher importStart = IMPORT_START_PATTERN.matcher(line);
+              if (!importStart.find()) {
+                return;
+              }
+              Matcher words = WORD_PATTERN.matcher(line);
+              words.region(importStart.end(), line.length());
+              while (words.find()) {
+                addImportLine(words.group(), lineIndex);
+              }
+              // a name starting the next line can also be removed when the line break is a single character
+              if (lineBreaks.get(lineIndex).length() == 1) {
+                Matcher nextLineWord = WORD_PATTERN.matcher(lines.get(lineIndex + 1));
+                if (nextLineWord.lookingAt()) {
+                  addImportLine(nextLineWord.group(), lineIndex);
+                  hasTypeKeywordAfterImportLine |= "type".equals(nextLineWord.group());
+                }
+              }
+            }
+
+            private void addImportLine(String name, int lineIndex) {
+              List<Integer> importLines = importLinesByName.get(name);
+              if (importLines == null) {
+                importLines = new ArrayList<Integer>();
+                importLinesByName.put(name, importLines);
+              }
+              if (importLines.isEmpty() || importLines.get(importLines.size() - 1) != lineIndex) {
+                importLines.add(lineIndex);
+              }
+            }
+
+            /**
+             * Removes, for each import line, the last occurrence of the name found after the opening brace of the import
+             * statement together with the following comma and whitespaces.
+             *
+             * @param name the imported name to remove
+             * @return false, without removing anything, if the name cannot be removed within the import lines
+             */
+            boolean remove(String name) {
+              if (hasTypeKeywordAfterImportLine) {
+                return false;
+              }
+              List<Integer> importLines = importLinesByName.get(name);
+              if (importLines == null) {
+                return true;
+              }
+              // line index, start and end of each removed range
+              List<int[]> removedRanges = new ArrayList<int[]>();
+              for (int lineIndex : importLines) {
+                // a name starting the next line would be removed from that line, which may turn it into a comment
+                if (lineBreaks.get(lineIndex).length() == 1 && lines.get(lineIndex + 1).indexOf(name) == 0
+                  && getRemoveEnd(lines.get(lineIndex + 1), name.length()) != -1) {
+                  return false;
+                }
+                StringBuilder line = lines.get(lineIndex);
+                Matcher importStart = IMPORT_START_PATTERN.matcher(line);
+                importStart.find();
+                int braceEnd = importStart.end();
+                for (int start = line.lastIndexOf(name); start >= braceEnd; start = line.lastIndexOf(name, start - 1)) {
+                  if (isWordCharacter(line.charAt(start - 1))) {
+                    continue;
+                  }
+                  int removeEnd = getRemoveEnd(line, start + name.length());
+                  if (removeEnd == -2) {
+                    return false;
+                  }
+                  if (removeEnd >= 0) {
+                    removedRanges.add(new int[] {lineIndex, start, removeEnd});
+                    break;
+                  }
+                }
+              }
+              for (int[] removedRange : removedRanges) {
+                lines.get(removedRange[0]).delete(removedRange[1], removedRange[2]);
+              }
+              return true;
+            }
+
+            /**
+             * Computes the end of the range to remove after a name: the following whitespaces and comma, keeping at least
+             * one separator before the next word.
+             *
+             * @param line the line containing the name
+             * @param end the end index of the name
+             * @return the end of the range to remove, -1 if the name is followed by a word character or -2 if the name is
+             * followed by the end of the line
+             */
+            private static int getRemoveEnd(StringBuilder line, int end) {
+              if (end < line.length() && isWordCharacter(line.charAt(end))) {
+                return -1;
+              }
+              int removeEnd = skipWhitespaces(line, end);
+              if (removeEnd < line.length() && line.charAt(removeEnd) == ',') {
+                removeEnd = skipWhitespaces(line, removeEnd + 1);
+              }
+              if (removeEnd == line.length()) {
+                return -2;
+              }
+              if (isWordCharacter(line.charAt(removeEnd))) {
+                // keep the last whitespace or comma as separator
+                removeEnd--;
+              }
+              return removeEnd;
+            }
+
+            private static int skipWhitespaces(CharSequence line, int index) {
+              while (index < line.length() && isWhitespace(line.charAt(index))) {
+                index++;
+              }
+              return index;
+            }
+
+            @Override
+            public String toString() {
+              StringBuilder fragment = new StringBuilder();
+              for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+                fragment.append(lines.get(lineIndex)).append(lineBreaks.get(lineIndex));
+              }
+              return fragment.toString();
+            }
+        }
+    }
+
+    /**
+     * Creates a thread-safe map keeping the most recently accessed entries.
+     *
+     * @param maxSize maximum number of entries, the least recently accessed one is evicted beyond
+     */
+    static <K, V> Map<K, V> createLruCache(final int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /** Word character as defined by the \\w regexp class */
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /** Whitespace character as defined by the \\s regexp class */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Line terminator as defined by the regexp engine */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /** Whether the index is the beginning of a line, a \\r\\n sequence being considered as a single line break */
+    private static boolean isLineStart(String fragment, int index) {
+        if (index == 0) {
+            return true;
         }
+        char previous = fragment.charAt(index - 1);
+        return isLineTerminator(previous) && !(previous == '\r' && index < fragment.length() && fragment.charAt(index) == '\n');
     }
 
     /**
@@ -547,7 +1609,7 @@ public class LambdaHelper {
 
         @Override
         public String formatFragment(String fragment) {
-            return fragment.matches(VALID_PROPERTY_REGEXP) ? fragment : ("'" + fragment + "'");
+            return RegexPatterns.VALID_PROPERTY_NAME.matcher(fragment).matches() ? fragment : ("'" + fragment + "'");
         }
     }
 
@@ -564,7 +1626,7 @@ public class LambdaHelper {
 
         @Override
         public String formatFragment(String fragment) {
-            return fragment.matches(VALID_PROPERTY_REGEXP) ? ("." + fragment) : ("['" + fragment + "']");
+            return RegexPatterns.VALID_PROPERTY_NAME.matcher(fragment).matches() ? ("." + fragment) : ("['" + fragment + "']");
         }
     }
 
@@ -583,7 +1645,7 @@ public class LambdaHelper {
         if (fragment == null || fragment.equals("")) {
           return "application/json";
         }
-        String[] mimeTypes = fragment.split(", ");
+        String[] mimeTypes = RegexPatterns.MIME_TYPE_SEPARATOR.split(fragment);
         if (mimeTypes.length < 1 || (mimeTypes.length == 1 && mimeTypes[0].equals(""))) {
           return "application/json";
         }
@@ -591,8 +1653,7 @@ public class LambdaHelper {
       }
 
       public static boolean isJsonMime(String mime) {
-        String jsonMime = "^(application\\/json|[^;/ \\t]+\\/[^;/ \\t]+[+]json)[ \\t]*(;.*)?$";
-        return mime != null && (mime.matches(jsonMime) || "application/json-patch+json".equalsIgnoreCase(mime));
+        return mime != null && (RegexPatterns.JSON_MIME.matcher(mime).matches() || "application/json-patch+json".equalsIgnoreCase(mime));
       }
 
       public static String getFirstJsonMimeType(String[] mimeTypes) {
@@ -0,0 +1,145 @@
+package com.amadeus.codegen.ts;
+
+import java.util.*;
+
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
+
+/**
+ * Otter-specific: Dependency graph of the models of a generation, by class name.
+ *
+ * The graph is computed in a single pass over the models once they are all post-processed, with an edge for each
+ * referenced model ($ref), each dictionary field type (x-field-type vendor extension) and each discriminator subtype
+ * (x-discriminator-subtypes vendor extension). The imports, dictionary and subtype information of the models are then
+ * read from the graph instead of walking the properties of each model again.
+ */
+public class ModelDependencyGraph {
+
+  /** Kind of dependency between two models */
+  public enum Dependency {
+    /** The target model is referenced by a property or a parent of the model ($ref) */
+    REFERENCE,
+    /** The target type is the type of a dictionary field of the model (x-field-type) */
+    FIELD_TYPE,
+    /** The target model is a discriminator subtype of the model (x-discriminator-subtypes) */
+    SUBTYPE
+  }
+
+  /** Dependencies of each model, by class name, in the order they are found */
+  private final Map<String, Set<Edge>> dependencies = new HashMap<String, Set<Edge>>();
+
+  /** Class names of the models having at least one dictionary field */
+  private final Set<String> dictionaryModels = new HashSet<String>();
+
+  /**
+   * Builds the dependency graph of the models.
+   *
+   * The dictionary field types are collected from the properties in the order of allVars, vars, requiredVars and
+   * optionalVars; the discriminator subtypes follow the field type of the first property, as the models without
+   * property have no subtype to revive.
+   *
+   * @param models the post-processed models, by schema name
+   */
+  public ModelDependencyGraph(Map<String, ModelsMap> models) {
+    for (ModelsMap modelsMap : models.values()) {
+      for (ModelMap modelMap : modelsMap.getModels()) {
+        addModel(modelMap.getModel());
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addModel(CodegenModel model) {
+    Set<Edge> modelDependencies = getOrCreateDependencies(model.classname);
+    for (String reference : model.imports) {
+      modelDependencies.add(new Edge(reference, Dependency.REFERENCE));
+    }
+    List<AbstractMap.SimpleEntry<String, String>> subTypes = model.vendorExtensions != null
+      ? (List<AbstractMap.SimpleEntry<String, String>>) model.vendorExtensions.get("x-discriminator-subtypes")
+      : null;
+    boolean firstProperty = true;
+    for (List<CodegenProperty> container : Arrays.asList(model.allVars, model.vars, model.requiredVars, model.optionalVars)) {
+      for (CodegenProperty prop : container) {
+        String fieldType = (String) prop.vendorExtensions.get("x-field-type");
+        if (fieldType != null) {
+          dictionaryModels.add(model.classname);
+          modelDependencies.add(new Edge(fieldType, Dependency.FIELD_TYPE));
+        }
+        if (firstProperty && subTypes != null) {
+          for (AbstractMap.SimpleEntry<String, String> subType : subTypes) {
+            modelDependencies.add(new Edge(subType.getValue(), Dependency.SUBTYPE));
+          }
+        }
+        firstProperty = false;
+      }
+    }
+  }
+
+  private Set<Edge> getOrCreateDependencies(String classname) {
+    Set<Edge> modelDependencies = dependencies.get(classname);
+    if (modelDependencies == null) {
+      modelDependencies = new LinkedHashSet<Edge>();
+      dependencies.put(classname, modelDependencies);
+    }
+    return modelDependencies;
+  }
+
+  /**
+   * @param classname the class name of the model
+   * @param kinds the kinds of dependency to consider
+   * @return the targets of the dependencies of the model of one of the given kinds, in the order they were found
+   */
+  public Set<String> getDependencies(String classname, Dependency... kinds) {
+    Set<Edge> modelDependencies = dependencies.get(classname);
+    if (modelDependencies == null) {
+      return Collections.emptySet();
+    }
+    List<Dependency> selectedKinds = Arrays.asList(kinds);
+    Set<String> targets = new LinkedHashSet<String>();
+    for (Edge edge : modelDependencies) {
+      if (selectedKinds.contains(edge.kind)) {
+        targets.add(edge.target);
+      }
+    }
+    return targets;
+  }
+
+  /**
+   * @param classname the class name of the model
+   * @return true if the model has at least one dictionary field (x-field-type vendor extension)
+   */
+  public boolean hasDictionary(String classname) {
+    return dictionaryModels.contains(classname);
+  }
+
+  /**
+   * Dependency of a model on a target model or type.
+   */
+  private static class Edge {
+
+    private final String target;
+
+    private final Dependency kind;
+
+    Edge(String target, Dependency kind) {
+      this.target = target;
+      this.kind = kind;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Edge)) {
+        return false;
+      }
+      Edge edge = (Edge) o;
+      return target.equals(edge.target) && kind == edge.kind;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * target.hashCode() + kind.hashCode();
+    }
+  }
+}
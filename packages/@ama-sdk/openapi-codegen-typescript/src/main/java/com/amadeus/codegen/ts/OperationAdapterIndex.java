@@ -0,0 +1,155 @@
+package com.amadeus.codegen.ts;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Otter-specific: Route index of the operation adapter (see spec/operation-adapter.mustache).
+ *
+ * The paths of the specification are stored in a trie of their segments, read from the last one, as the URL patterns
+ * of the operation adapter match the end of the requested path (the beginning being the base path of the server). The
+ * operation of a request is then found in a number of steps proportional to the number of segments of its path,
+ * instead of testing the regular expression of every path.
+ *
+ * Only the paths made of plain literal segments and whole parameter segments (e.g. /carts/{cartId}/items) are stored
+ * in the trie; the other paths (regular expression characters, partial parameter segments...) are listed as fallback
+ * paths and matched with their regular expression.
+ */
+public class OperationAdapterIndex {
+
+  /** Literal segments matching themselves in the URL patterns */
+  private static final Pattern LITERAL_SEGMENT = Pattern.compile("[\\w~:@!,;=%-]*");
+
+  /** Segments replaced by a parameter pattern in the URL patterns */
+  private static final Pattern PARAMETER_SEGMENT = RegexPatterns.PATH_PARAMETER;
+
+  /** Nodes of the trie, the root being the first one */
+  private final List<Node> nodes = new ArrayList<Node>();
+
+  /** Specificity of each path, as computed by the getPath helper of @ama-sdk/core */
+  private final List<String> specificities = new ArrayList<String>();
+
+  /** Indexes of the paths not stored in the trie */
+  private final List<Integer> fallbackPaths = new ArrayList<Integer>();
+
+  /**
+   * @param paths the paths of the operation adapter, in order
+   */
+  public OperationAdapterIndex(List<String> paths) {
+    nodes.add(new Node(0));
+    for (int index = 0; index < paths.size(); index++) {
+      String path = paths.get(index);
+      specificities.add(getSpecificity(path));
+      if (!add(path, index)) {
+        fallbackPaths.add(index);
+      }
+    }
+  }
+
+  /**
+   * @return the data of the operation adapter template: nodes of the trie, specificities and fallback paths
+   */
+  public Map<String, Object> toTemplateData() {
+    List<Map<String, Object>> nodesData = new ArrayList<Map<String, Object>>(nodes.size());
+    for (Node node : nodes) {
+      List<Map<String, Object>> segments = new ArrayList<Map<String, Object>>(node.segments.size());
+      for (Map.Entry<String, Node> child : node.segments.entrySet()) {
+        Map<String, Object> segment = new HashMap<String, Object>();
+        segment.put("segment", child.getKey());
+        segment.put("node", child.getValue().id);
+        segments.add(segment);
+      }
+      Map<String, Object> nodeData = new HashMap<String, Object>();
+      nodeData.put("segments", segments);
+      nodeData.put("hasSegments", !segments.isEmpty());
+      nodeData.put("parameter", node.parameter != null ? node.parameter.id : null);
+      nodeData.put("paths", node.paths);
+      nodeData.put("hasPaths", !node.paths.isEmpty());
+      nodesData.add(nodeData);
+    }
+    Map<String, Object> data = new HashMap<String, Object>();
+    data.put("nodes", nodesData);
+    data.put("specificities", specificities);
+    data.put("fallbackPaths", fallbackPaths);
+    return data;
+  }
+
+  /**
+   * Adds the path to the trie, from its last segment.
+   *
+   * @return false if the path cannot be matched segment by segment
+   */
+  private boolean add(String path, int index) {
+    if (!path.startsWith("/")) {
+      return false;
+    }
+    String[] segments = path.substring(1).split("/", -1);
+    for (String segment : segments) {
+      // a __proto__ key would not be defined in the generated object literal
+      if (!PARAMETER_SEGMENT.matcher(segment).matches() && (!LITERAL_SEGMENT.matcher(segment).matches() || "__proto__".equals(segment))) {
+        return false;
+      }
+    }
+    Node node = nodes.get(0);
+    for (int i = segments.length - 1; i >= 0; i--) {
+      if (PARAMETER_SEGMENT.matcher(segments[i]).matches()) {
+        if (node.parameter == null) {
+          node.parameter = newNode();
+        }
+        node = node.parameter;
+      } else {
+        Node child = node.segments.get(segments[i]);
+        if (child == null) {
+          child = newNode();
+          node.segments.put(segments[i], child);
+        }
+        node = child;
+      }
+    }
+    node.paths.add(index);
+    return true;
+  }
+
+  private Node newNode() {
+    Node node = new Node(nodes.size());
+    nodes.add(node);
+    return node;
+  }
+
+  /**
+   * Computes the position of the first parameter segment of the path, the paths with the latest parameter being the
+   * most specific ones.
+   *
+   * @return the position of the first parameter segment, Infinity for a static path
+   */
+  private static String getSpecificity(String path) {
+    String[] segments = path.split("/", -1);
+    for (int i = 0; i < segments.length; i++) {
+      if (segments[i].startsWith("{") && segments[i].endsWith("}")) {
+        return String.valueOf(i);
+      }
+    }
+    return "Infinity";
+  }
+
+  /**
+   * Node of the trie, reached by the segments of the end of the paths.
+   */
+  private static class Node {
+
+    private final int id;
+
+    /** Child nodes by literal segment */
+    private final Map<String, Node> segments = new LinkedHashMap<String, Node>();
+
+    /** Child node of the parameter segments, null if none */
+    private Node parameter;
+
+    /** Indexes of the paths ending at this node */
+    private final List<Integer> paths = new ArrayList<Integer>();
+
+    Node(int id) {
+      this.id = id;
+    }
+  }
+}
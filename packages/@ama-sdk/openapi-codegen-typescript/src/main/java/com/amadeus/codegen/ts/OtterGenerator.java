@@ -0,0 +1,299 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.Generator;
+import org.openapitools.codegen.TemplateManager;
+import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.model.ModelsMap;
+import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.templating.CommonTemplateContentLocator;
+import org.openapitools.codegen.templating.GeneratorTemplateContentLocator;
+import org.openapitools.codegen.templating.TemplateManagerOptions;
+
+/**
+ * Otter-specific generator consulting the overwrite rules of the codegen before rendering each file.
+ *
+ * Since openapi-generator 7, the upstream {@link DefaultGenerator} does not call {@code CodegenConfig.shouldOverwrite}
+ * anymore. This generator calls it for every file about to be rendered, and skips the rendering of the existing files
+ * the codegen does not want to overwrite (skip overwrite patterns, incremental generation...).
+ *
+ * With the compareBeforeWrite global property (or the minimal update option), the rendered files identical to the files
+ * on disk are not written (see {@link CompareBeforeWriteTemplateManager}) and the number of written, unchanged and
+ * skipped files is reported at the end of the generation.
+ *
+ * The generated, skipped (overwrite rules) and not generated (ignore file, generation options) files are counted in the
+ * generation report of the codegen (see {@link GenerationMetrics}).
+ *
+ * With the parallelRendering global property (see {@link AbstractTypeScriptClientCodegen#getRenderingThreads()}), the
+ * model and API files are rendered concurrently on a bounded pool of threads. The files are independent from each other
+ * so the output is the same as the serial rendering; all the renderings complete before the supporting files and
+ * before the post-processing of the codegen (generation manifest and report).
+ *
+ * Command line example:
+ * ```shell
+ * java -cp "typescriptFetch-openapi-generator.jar;openapi-generator-cli.jar" com.amadeus.codegen.ts.OtterGenerator -i spec.yaml -o . --global-property incrementalGeneration
+ * ```
+ */
+public class OtterGenerator extends DefaultGenerator {
+
+  /** Template manager comparing the rendered files before writing them, null if the compareBeforeWrite mode is disabled */
+  private CompareBeforeWriteTemplateManager compareBeforeWriteTemplateManager;
+
+  /** Maximum number of renderings waiting for a thread, per thread, before rendering on the generation thread */
+  private static final int RENDERING_QUEUE_SIZE_PER_THREAD = 4;
+
+  /** Executor rendering the model and API files during the generation, null if the rendering is serial */
+  private ExecutorService renderingExecutor;
+
+  /** Renderings submitted to the executor and not awaited yet */
+  private final List<Future<File>> pendingRenderings = new ArrayList<Future<File>>();
+
+  /** Files rendered by the executor, in lower case, to detect the paths which differ only by their case */
+  private final Set<String> renderedFilesLower = new HashSet<String>();
+
+  public OtterGenerator() {
+    super();
+  }
+
+  public OtterGenerator(Boolean dryRun) {
+    super(dryRun);
+  }
+
+  @Override
+  public Generator opts(ClientOptInput opts) {
+    super.opts(opts);
+    if (config instanceof AbstractTypeScriptClientCodegen) {
+      ((AbstractTypeScriptClientCodegen) config).setOverwriteRulesApplied(true);
+    }
+    String compareBeforeWriteString = GlobalSettings.getProperty("compareBeforeWrite");
+    boolean compareBeforeWrite = compareBeforeWriteString != null ? !"false".equalsIgnoreCase(compareBeforeWriteString) : config.isEnableMinimalUpdate();
+    // the dry run does not write any file
+    if (compareBeforeWrite && templateProcessor instanceof TemplateManager) {
+      // the templating engine has already been set up by the default generator
+      compareBeforeWriteTemplateManager = new CompareBeforeWriteTemplateManager(
+        new TemplateManagerOptions(false, config.isSkipOverwrite()),
+        config.getTemplatingEngine(),
+        new TemplatePathLocator[] {new GeneratorTemplateContentLocator(config), new CommonTemplateContentLocator()}
+      );
+      templateProcessor = compareBeforeWriteTemplateManager;
+    }
+    return this;
+  }
+
+  @Override
+  public List<File> generate() {
+    List<File> files;
+    renderingExecutor = createRenderingExecutor();
+    // the renderings complete before the codegen saves the generation manifest and report
+    if (renderingExecutor != null && config instanceof AbstractTypeScriptClientCodegen) {
+      ((AbstractTypeScriptClientCodegen) config).setBeforePostProcess(this::awaitRenderings);
+    }
+    try {
+      files = super.generate();
+      awaitRenderings();
+    } finally {
+      if (config instanceof AbstractTypeScriptClientCodegen) {
+        ((AbstractTypeScriptClientCodegen) config).setBeforePostProcess(null);
+      }
+      if (renderingExecutor != null) {
+        renderingExecutor.shutdownNow();
+        renderingExecutor = null;
+      }
+    }
+    if (compareBeforeWriteTemplateManager != null) {
+      LOGGER.info("Generated files: " + compareBeforeWriteTemplateManager.getWrittenFiles() + " written, "
+        + compareBeforeWriteTemplateManager.getUnchangedFiles() + " unchanged, "
+        + compareBeforeWriteTemplateManager.getSkippedFiles() + " skipped");
+    }
+    return files;
+  }
+
+  @Override
+  protected File processTemplateToFile(Map<String, Object> templateData, String templateName, String outputFilename,
+                                       boolean shouldGenerate, String skippedByOption) throws IOException {
+    File target = new File(outputFilename);
+    if (shouldGenerate && ignoreProcessor.allowsFile(target) && !config.shouldOverwrite(outputFilename) && target.isFile()) {
+      templateProcessor.skip(target.toPath(), "Skipped by the overwrite rules of the generator.");
+      countFile("filesSkipped");
+      // the file is still part of the generated files
+      return target;
+    }
+    if (renderingExecutor != null && shouldGenerate && (templateData instanceof ModelsMap || templateData instanceof OperationsMap)) {
+      // counted once rendered
+      return submitRendering(templateData, templateName, outputFilename);
+    }
+    // the supporting files are rendered once all the model and API files are complete
+    awaitRenderings();
+    File file = super.processTemplateToFile(templateData, templateName, outputFilename, shouldGenerate, skippedByOption);
+    countFile(file != null ? "filesGenerated" : "filesNotGenerated");
+    return file;
+  }
+
+  /**
+   * Counts a file in the metrics of the generation, reported by the codegen at the end of the generation.
+   */
+  private void countFile(String counter) {
+    if (config instanceof AbstractTypeScriptClientCodegen) {
+      ((AbstractTypeScriptClientCodegen) config).getGenerationMetrics().count(counter, 1);
+    }
+  }
+
+  /**
+   * Creates the executor of the parallel rendering, if enabled by the codegen.
+   *
+   * The rendering stays serial for the dry run and when the files are post-processed, as the post-processing of a file
+   * follows its rendering.
+   *
+   * @return the executor, null for a serial rendering
+   */
+  private ExecutorService createRenderingExecutor() {
+    int renderingThreads = config instanceof AbstractTypeScriptClientCodegen ? ((AbstractTypeScriptClientCodegen) config).getRenderingThreads() : 0;
+    if (renderingThreads < 2 || !(templateProcessor instanceof TemplateManager) || config.isEnablePostProcessFile()) {
+      return null;
+    }
+    LOGGER.info("Rendering the model and API files on " + renderingThreads + " threads");
+    final AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory threadFactory = new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "otter-rendering-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    // when all the threads are busy and the queue is full, the generation thread renders the file itself
+    return new ThreadPoolExecutor(renderingThreads, renderingThreads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<Runnable>(renderingThreads * RENDERING_QUEUE_SIZE_PER_THREAD), threadFactory,
+      new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Submits the rendering of a model or API file, with the same checks as the serial rendering.
+   *
+   * The file is counted in the metrics of the generation once rendered, or right away if it is ignored.
+   *
+   * @return the file being rendered, null if it is ignored
+   */
+  private File submitRendering(final Map<String, Object> templateData, final String templateName, String outputFilename) {
+    final File target = new File(RegexPatterns.DOUBLE_SLASH.matcher(outputFilename).replaceAll("/").replace('/', File.separatorChar));
+    if (!ignoreProcessor.allowsFile(target)) {
+      templateProcessor.ignore(target.toPath(), "Ignored by rule in ignore file.");
+      countFile("filesNotGenerated");
+      return null;
+    }
+    Path outputDir = Paths.get(config.getOutputDir()).toAbsolutePath();
+    Path absoluteTarget = target.toPath().toAbsolutePath();
+    if (!absoluteTarget.startsWith(outputDir)) {
+      throw new RuntimeException(String.format(Locale.ROOT, "Target files must be generated within the output directory; absoluteTarget=%s outDir=%s", absoluteTarget, outputDir));
+    }
+    if (!renderedFilesLower.add(absoluteTarget.toString().toLowerCase(Locale.ROOT))) {
+      LOGGER.warn("Duplicate file path detected. Not all operating systems can handle case sensitive file paths. path={}", absoluteTarget);
+    }
+    pendingRenderings.add(renderingExecutor.submit(new Callable<File>() {
+      @Override
+      public File call() {
+        try {
+          File file = templateProcessor.write(templateData, templateName, target);
+          countFile(file != null ? "filesGenerated" : "filesNotGenerated");
+          return file;
+        } catch (Exception e) {
+          throw new RuntimeException("Could not generate file '" + target + "'", e);
+        }
+      }
+    }));
+    return target;
+  }
+
+  /**
+   * Waits for the completion of the submitted renderings, failing on the first rendering error.
+   */
+  private void awaitRenderings() {
+    try {
+      for (Future<File> rendering : pendingRenderings) {
+        rendering.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while rendering the model and API files", e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+    } finally {
+      pendingRenderings.clear();
+    }
+  }
+
+  /**
+   * Generates an SDK with the {@link OtterGenerator}.
+   *
+   * Supported options:
+   * - -i, --input-spec: path or URL of the specification (required)
+   * - -o, --output: output directory (default: current directory)
+   * - -g, --generator-name: name of the generator (default: typescriptFetch)
+   * - -t, --template-dir: folder of custom templates
+   * - --global-property: comma separated list of global properties (e.g. incrementalGeneration,stringifyDate=false)
+   * - --additional-properties: comma separated list of additional properties
+   * - --skip-validate-spec: skips the validation of the specification
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    CodegenConfigurator configurator = new CachingCodegenConfigurator()
+      .setGeneratorName("typescriptFetch")
+      .setOutputDir(".");
+    for (int i = 0; i < args.length; i++) {
+      String option = args[i];
+      if ("--skip-validate-spec".equals(option)) {
+        configurator.setValidateSpec(false);
+        continue;
+      }
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for the option " + option);
+      }
+      String value = args[++i];
+      switch (option) {
+        case "-i":
+        case "--input-spec":
+          configurator.setInputSpec(value);
+          break;
+        case "-o":
+        case "--output":
+          configurator.setOutputDir(value);
+          break;
+        case "-g":
+        case "--generator-name":
+          configurator.setGeneratorName(value);
+          break;
+        case "-t":
+        case "--template-dir":
+          configurator.setTemplateDir(value);
+          break;
+        case "--global-property":
+          for (String property : value.split(",")) {
+            String[] keyValue = property.split("=", 2);
+            configurator.addGlobalProperty(keyValue[0].trim(), keyValue.length > 1 ? keyValue[1].trim() : "");
+          }
+          break;
+        case "--additional-properties":
+          for (String property : value.split(",")) {
+            String[] keyValue = property.split("=", 2);
+            configurator.addAdditionalProperty(keyValue[0].trim(), keyValue.length > 1 ? keyValue[1].trim() : "");
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + option);
+      }
+    }
+    new OtterGenerator().opts(configurator.toClientOptInput()).generate();
+  }
+}
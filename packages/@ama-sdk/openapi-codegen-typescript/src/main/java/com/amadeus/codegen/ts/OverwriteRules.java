@@ -0,0 +1,248 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Otter-specific: Precompiled overwrite rules of the generated files (see {@link AbstractTypeScriptClientCodegen#shouldOverwrite}).
+ *
+ * The patterns are compiled once, with the literals any match must contain (folder names, file suffix): most patterns
+ * are discarded by a plain string comparison before running the regular expression, and the rule of each path is
+ * cached. The existence of the files is checked by listing each output folder once, as all the files of a folder are
+ * usually checked during the same generation.
+ */
+public class OverwriteRules {
+
+  /** Overwrite rule applying to a file */
+  public enum Rule {
+    /** The file matches a force overwrite pattern */
+    FORCE_OVERWRITE,
+    /** The file matches a skip overwrite pattern */
+    SKIP_OVERWRITE,
+    /** The file does not match any pattern */
+    DEFAULT
+  }
+
+  private final List<FilePathPattern> forceOverwritePatterns;
+
+  private final List<FilePathPattern> skipOverwritePatterns;
+
+  /** Copy of the force overwrite patterns the rules are compiled from */
+  private final List<String> forceOverwriteSources;
+
+  /** Copy of the skip overwrite patterns the rules are compiled from */
+  private final List<String> skipOverwriteSources;
+
+  /** Rule of each file, by path */
+  private final Map<String, Rule> rules = new ConcurrentHashMap<String, Rule>();
+
+  /** Names of the files of each folder when it was first listed, by folder path */
+  private final Map<String, Set<String>> filesByFolder = new ConcurrentHashMap<String, Set<String>>();
+
+  /**
+   * @param forceOverwritePatterns the regular expressions of the files to always overwrite
+   * @param skipOverwritePatterns the regular expressions of the files to keep if they exist
+   */
+  public OverwriteRules(List<String> forceOverwritePatterns, List<String> skipOverwritePatterns) {
+    this.forceOverwritePatterns = compile(forceOverwritePatterns);
+    this.skipOverwritePatterns = compile(skipOverwritePatterns);
+    this.forceOverwriteSources = new ArrayList<String>(forceOverwritePatterns);
+    this.skipOverwriteSources = new ArrayList<String>(skipOverwritePatterns);
+  }
+
+  /**
+   * @param filename the path of the file
+   * @return the overwrite rule of the file, force overwrite taking precedence over skip overwrite
+   */
+  public Rule getRule(String filename) {
+    Rule rule = rules.get(filename);
+    if (rule == null) {
+      if (matchesAny(forceOverwritePatterns, filename)) {
+        rule = Rule.FORCE_OVERWRITE;
+      } else if (matchesAny(skipOverwritePatterns, filename)) {
+        rule = Rule.SKIP_OVERWRITE;
+      } else {
+        rule = Rule.DEFAULT;
+      }
+      rules.put(filename, rule);
+    }
+    return rule;
+  }
+
+  /**
+   * Determines if the file existed when its folder was first checked, listing the folder only once.
+   *
+   * @param filename the path of the file
+   * @return true if the file exists
+   */
+  public boolean exists(String filename) {
+    File file = new File(filename);
+    File folder = file.getAbsoluteFile().getParentFile();
+    if (folder == null) {
+      return file.isFile();
+    }
+    Set<String> files = filesByFolder.get(folder.getPath());
+    if (files == null) {
+      String[] names = folder.list();
+      files = names != null ? new HashSet<String>(Arrays.asList(names)) : Collections.<String>emptySet();
+      filesByFolder.put(folder.getPath(), files);
+    }
+    // only the listed names are checked against the file system, to exclude the folders
+    return files.contains(file.getName()) && file.isFile();
+  }
+
+  /**
+   * @param forceOverwritePatterns the current force overwrite patterns
+   * @param skipOverwritePatterns the current skip overwrite patterns
+   * @return true if the rules have been compiled from the same patterns, in the same order
+   */
+  public boolean isCompiledFrom(List<String> forceOverwritePatterns, List<String> skipOverwritePatterns) {
+    return forceOverwriteSources.equals(forceOverwritePatterns) && skipOverwriteSources.equals(skipOverwritePatterns);
+  }
+
+  private static boolean matchesAny(List<FilePathPattern> patterns, String filename) {
+    for (FilePathPattern pattern : patterns) {
+      if (pattern.matches(filename)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<FilePathPattern> compile(List<String> patterns) {
+    List<FilePathPattern> compiledPatterns = new ArrayList<FilePathPattern>(patterns.size());
+    for (String pattern : patterns) {
+      compiledPatterns.add(new FilePathPattern(pattern));
+    }
+    return compiledPatterns;
+  }
+
+  /**
+   * Regular expression compiled with the literals a matching path must contain and end with.
+   */
+  static class FilePathPattern {
+
+    /** Escaped letters standing for a single character or a character class, without argument */
+    private static final String SINGLE_CHARACTER_ESCAPES = "wWdDsSbBhHvVRXtnrfaeAzZG";
+
+    /** Embedded flags (e.g. case insensitive) change how the literals match */
+    private static final Pattern EMBEDDED_FLAGS = Pattern.compile("\\(\\?[a-zA-Z-]");
+
+    private final Pattern pattern;
+
+    /** Literals found outside of any group, which every matching path contains */
+    private final List<String> requiredLiterals = new ArrayList<String>();
+
+    /** Literal ending the expression, which every matching path ends with (empty if unknown) */
+    private final String suffix;
+
+    FilePathPattern(String regex) {
+      this.pattern = Pattern.compile(regex);
+      this.suffix = extractLiterals(regex, requiredLiterals);
+    }
+
+    boolean matches(String filename) {
+      if (!filename.endsWith(suffix)) {
+        return false;
+      }
+      for (String literal : requiredLiterals) {
+        if (!filename.contains(literal)) {
+          return false;
+        }
+      }
+      return pattern.matcher(filename).matches();
+    }
+
+    /**
+     * Collects the literal sequences of the expression outside of any group and character class.
+     *
+     * The extraction is conservative: an expression with a top level alternation or embedded flags has no required
+     * literal, and a character followed by a quantifier is not part of any literal.
+     *
+     * @param regex the regular expression
+     * @param literals the list to fill with the required literals
+     * @return the literal ending the expression (before the final $), empty if there is none
+     */
+    private static String extractLiterals(String regex, List<String> literals) {
+      if (EMBEDDED_FLAGS.matcher(regex).find()) {
+        return "";
+      }
+      List<String> found = new ArrayList<String>();
+      StringBuilder literal = new StringBuilder();
+      int depth = 0;
+      boolean inClass = false;
+      for (int i = 0; i < regex.length(); i++) {
+        char c = regex.charAt(i);
+        if (c == '\\') {
+          char escaped = i + 1 < regex.length() ? regex.charAt(++i) : c;
+          if (Character.isLetterOrDigit(escaped) && SINGLE_CHARACTER_ESCAPES.indexOf(escaped) < 0) {
+            // escapes with arguments (\x41, \p{Lu}, back references...) are not worth parsing
+            return "";
+          } else if (!inClass && depth == 0 && !Character.isLetterOrDigit(escaped)) {
+            literal.append(escaped);
+          } else if (!inClass && depth == 0) {
+            endLiteral(literal, found);
+          }
+        } else if (inClass) {
+          if (c == '[') {
+            // nested classes are not worth parsing
+            return "";
+          }
+          inClass = c != ']';
+        } else if (c == '[') {
+          inClass = true;
+          endLiteral(literal, found);
+          // a closing bracket at the beginning of the class is part of it
+          if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+            i++;
+          }
+          if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+            i++;
+          }
+        } else if (c == '(') {
+          depth++;
+          endLiteral(literal, found);
+        } else if (c == ')') {
+          depth--;
+        } else if (depth > 0) {
+          continue;
+        } else if (c == '|') {
+          return "";
+        } else if (c == '*' || c == '+' || c == '?' || c == '{') {
+          // the quantified character (both chars of a surrogate pair) is optional or repeated
+          if (literal.length() > 0) {
+            literal.setLength(literal.offsetByCodePoints(literal.length(), -1));
+          }
+          endLiteral(literal, found);
+          if (c == '{') {
+            i = regex.indexOf('}', i);
+            if (i < 0) {
+              return "";
+            }
+          }
+        } else if (c == '$' && i == regex.length() - 1) {
+          String suffix = literal.toString();
+          endLiteral(literal, found);
+          literals.addAll(found);
+          return suffix;
+        } else if (c == '.' || c == '^' || c == '$') {
+          endLiteral(literal, found);
+        } else {
+          literal.append(c);
+        }
+      }
+      endLiteral(literal, found);
+      literals.addAll(found);
+      return "";
+    }
+
+    private static void endLiteral(StringBuilder literal, List<String> literals) {
+      if (literal.length() > 0) {
+        literals.add(literal.toString());
+        literal.setLength(0);
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.amadeus.codegen.ts;
+
+import java.util.regex.Pattern;
+
+/**
+ * Otter-specific: Regular expressions of the codegen and of the Mustache lambdas, compiled once per JVM.
+ *
+ * The methods called for each model, property, operation or lambda rendering use these patterns instead of the String
+ * methods compiling their regexp at each call (matches, replaceAll, replaceFirst and split with a regexp separator).
+ * The compiled patterns are immutable and can be used concurrently.
+ *
+ * The RegexCompilationTest fails if a method of the generator, other than the static initializers and the main methods,
+ * compiles a regular expression outside of its list of allowed calls.
+ */
+public final class RegexPatterns {
+
+  /** Date types of the generated models, once the date type overrides applied */
+  public static final Pattern DATE_TYPE = Pattern.compile("^(Date|utils.Date|utils.DateTime)$");
+
+  /** Escaped quote, group 1 is the quote */
+  public static final Pattern ESCAPED_QUOTE = Pattern.compile("\\\\([\"'])");
+
+  /** Uppercase letter, group 1 is the letter (e.g. to insert a separator before it) */
+  public static final Pattern UPPERCASE_LETTER = Pattern.compile("([A-Z])");
+
+  /** Name ending with the Api suffix, group 1 is the name without the suffix */
+  public static final Pattern API_SUFFIX = Pattern.compile("(.*)Api$");
+
+  /** Class name ending with the Api suffix, group 1 is the class name without the suffix */
+  public static final Pattern API_CLASS_SUFFIX = Pattern.compile("(\\w*)Api$");
+
+  /** Hyphen followed by a word character, group 1 is the word character */
+  public static final Pattern HYPHEN_WORD = Pattern.compile("-(\\w)");
+
+  /** Path parameter of an URL template, group 1 is the name of the parameter */
+  public static final Pattern PATH_PARAMETER_NAME = Pattern.compile("\\{([\\w_-]+)\\}");
+
+  /** Path parameter of an URL template, with any name */
+  public static final Pattern PATH_PARAMETER = Pattern.compile("\\{[^}]+\\}");
+
+  /** Resource of a path: the first one or two segments */
+  public static final Pattern RESOURCE_PATH = Pattern.compile("\\/([\\w-]+\\/?){1,2}\\/?");
+
+  /** Area of a path: the first segment */
+  public static final Pattern AREA_PATH = Pattern.compile("\\/([\\w-]+)\\/?");
+
+  /** Property name which can be used as an identifier, without quotes */
+  public static final Pattern VALID_PROPERTY_NAME = Pattern.compile("^(?!\\d)[\\w$]+$");
+
+  /** JSON mime type, with optional parameters */
+  public static final Pattern JSON_MIME = Pattern.compile("^(application\\/json|[^;/ \\t]+\\/[^;/ \\t]+[+]json)[ \\t]*(;.*)?$");
+
+  /** Separator of the mime types of a header */
+  public static final Pattern MIME_TYPE_SEPARATOR = Pattern.compile(", ");
+
+  /** Innermost Array generic type, group 1 is the type of the elements */
+  public static final Pattern ARRAY_GENERIC = Pattern.compile("Array<([^<>]+)>");
+
+  /** Trailing slash */
+  public static final Pattern TRAILING_SLASH = Pattern.compile("/$");
+
+  /** Leading slashes, when there are several of them */
+  public static final Pattern LEADING_SLASHES = Pattern.compile("^/{2,}");
+
+  /** Double slash */
+  public static final Pattern DOUBLE_SLASH = Pattern.compile("//");
+
+  private RegexPatterns() {
+  }
+}
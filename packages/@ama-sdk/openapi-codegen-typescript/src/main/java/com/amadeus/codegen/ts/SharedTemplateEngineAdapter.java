@@ -0,0 +1,91 @@
+package com.amadeus.codegen.ts;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.templating.MustacheEngineAdapter;
+
+/**
+ * Otter-specific: Mustache engine keeping the compiled templates across generations.
+ *
+ * The upstream engine caches the compiled templates per template manager, i.e. per generation. This engine is shared
+ * by the generations using the same templates (generator, template folder and library, see
+ * {@link GenerationJob#getTemplatesKey()}), so each template is compiled once per JVM by the daemon and batch modes.
+ * The engine is replaced when the content of the template folder changes (see {@link #getTemplatesFingerprint()}).
+ * The compiled templates are immutable and rendered concurrently.
+ *
+ * The partials are loaded while the templates are rendered, with the template manager of the generation rendering
+ * them: the engine does not keep any reference to a generation.
+ */
+public class SharedTemplateEngineAdapter extends MustacheEngineAdapter {
+
+  /** Name of the bundle entry holding the parent context of the templates (see DefaultGenerator) */
+  private static final String MUSTACHE_PARENT_CONTEXT = "MUSTACHE_PARENT_CONTEXT";
+
+  /** Compiled templates, by template file */
+  private final Map<String, Template> templates = new ConcurrentHashMap<String, Template>();
+
+  /** Template manager of the generation compiling or rendering a template in the current thread */
+  private final ThreadLocal<TemplatingExecutor> currentExecutor = new ThreadLocal<TemplatingExecutor>();
+
+  /** Loader of the partials, through the template manager of the current generation */
+  private final Mustache.TemplateLoader partialLoader = name -> {
+    TemplatingExecutor executor = currentExecutor.get();
+    if (executor == null) {
+      throw new IllegalStateException("Partial " + name + " loaded outside of a rendering");
+    }
+    return findTemplate(executor, name);
+  };
+
+  private final String templatesFingerprint;
+
+  /**
+   * @param templatesFingerprint the fingerprint of the content of the templates compiled by the engine
+   */
+  public SharedTemplateEngineAdapter(String templatesFingerprint) {
+    this.templatesFingerprint = templatesFingerprint;
+  }
+
+  /**
+   * @return the fingerprint of the content of the templates compiled by the engine
+   */
+  public String getTemplatesFingerprint() {
+    return templatesFingerprint;
+  }
+
+  @Override
+  public String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile) throws IOException {
+    TemplatingExecutor previousExecutor = currentExecutor.get();
+    currentExecutor.set(executor);
+    try {
+      Template template = templates.get(templateFile);
+      if (template == null) {
+        template = getCompiler().withLoader(partialLoader).defaultValue("").compile(executor.getFullTemplateContents(templateFile));
+        templates.putIfAbsent(templateFile, template);
+      }
+      StringWriter out = new StringWriter();
+      Object parent = bundle.get(MUSTACHE_PARENT_CONTEXT);
+      template.execute(bundle, parent != null ? parent : new Object(), out);
+      return out.toString();
+    } finally {
+      if (previousExecutor != null) {
+        currentExecutor.set(previousExecutor);
+      } else {
+        currentExecutor.remove();
+      }
+    }
+  }
+
+  /**
+   * @return the number of compiled templates
+   */
+  public int getCompiledTemplates() {
+    return templates.size();
+  }
+}
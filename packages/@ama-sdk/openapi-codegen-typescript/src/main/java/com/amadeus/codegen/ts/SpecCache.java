@@ -0,0 +1,314 @@
+package com.amadeus.codegen.ts;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.converter.SwaggerConverter;
+
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Otter-specific: On-disk cache of the parsed and resolved specifications.
+ *
+ * An entry is keyed by the fingerprint of the parser, the parse and validation options, the path and the content of the
+ * specification. The options are part of the key as a cached specification is not validated again. It stores the
+ * hashes of the local files referenced by the specification ($ref to other files, transitively) and the resolved
+ * specification as gzipped JSON. The entry is used only if none of these files changed, otherwise the specification
+ * is parsed again and the entry replaced.
+ *
+ * With the specCacheVerify global property, a specification is stored only if it is restored as is from its
+ * serialization. The check doubles the cost of a store, it is meant to validate the cache on new specifications.
+ *
+ * Remote specifications, and specifications referencing remote files, are never cached as their content cannot be
+ * checked without downloading them.
+ *
+ * Each revision of a specification adds an entry: the entries not used for {@link #MAX_ENTRY_AGE_DAYS} days are deleted,
+ * and at most {@link #MAX_ENTRIES} entries are kept (the least recently used ones are deleted first).
+ */
+public class SpecCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpecCache.class);
+
+  /** Name of the cache folder in the temporary folder, when no folder is specified */
+  static final String DEFAULT_FOLDER_NAME = "otter-spec-cache";
+
+  private static final String ENTRY_EXTENSION = ".json.gz";
+
+  /** Global property checking that each stored specification is restored as is from its serialization */
+  static final String VERIFY_PROPERTY = "specCacheVerify";
+
+  /** Maximum number of entries kept in the cache folder */
+  static final int MAX_ENTRIES = 100;
+
+  /** Number of days after which an unused entry is deleted */
+  static final int MAX_ENTRY_AGE_DAYS = 30;
+
+  /** Fingerprint of the parser and of the OpenAPI model, computed once per JVM */
+  private static volatile String parserFingerprint;
+
+  private final File folder;
+
+  /**
+   * @param folder the folder of the cache entries, created on the first store
+   */
+  public SpecCache(File folder) {
+    this.folder = folder;
+  }
+
+  /**
+   * @return the folder of the cache entries
+   */
+  public File getFolder() {
+    return folder;
+  }
+
+  /**
+   * @param option the value of the specCache global property: true (or empty) for the default folder, a folder otherwise
+   * @return the cache folder
+   */
+  public static File resolveFolder(String option) {
+    if (option.isEmpty() || "true".equalsIgnoreCase(option)) {
+      return new File(System.getProperty("java.io.tmpdir"), DEFAULT_FOLDER_NAME);
+    }
+    return new File(option);
+  }
+
+  /**
+   * @param inputSpec the path or URL of the specification
+   * @return true if the specification is a local file, which can be cached
+   */
+  public static boolean isCacheable(String inputSpec) {
+    return !inputSpec.contains("://") && new File(inputSpec).isFile();
+  }
+
+  /**
+   * Loads the specification from the cache.
+   *
+   * @param inputSpec the path of the specification
+   * @param parseOptions the options of the parsing and of the validation of the specification
+   * @return the resolved specification, or null if it is not cached or if one of its files changed
+   */
+  public OpenAPI load(String inputSpec, String parseOptions) {
+    File entryFile = getEntryFile(inputSpec, parseOptions);
+    if (entryFile == null || !entryFile.isFile()) {
+      return null;
+    }
+    try (InputStream input = new GZIPInputStream(new BufferedInputStream(new FileInputStream(entryFile)))) {
+      JsonNode entry = Json.mapper().readTree(input);
+      for (Map.Entry<String, JsonNode> file : entry.path("files").properties()) {
+        if (!file.getValue().asText().equals(hashFile(new File(file.getKey())))) {
+          LOGGER.info("Spec cache entry " + entryFile.getName() + " outdated by " + file.getKey());
+          return null;
+        }
+      }
+      SpecVersion specVersion = SpecVersion.valueOf(entry.path("specVersion").asText(SpecVersion.V30.name()));
+      OpenAPI openAPI = getMapper(specVersion).treeToValue(entry.path("openapi"), OpenAPI.class);
+      openAPI.setSpecVersion(specVersion);
+      // the modification time tracks the last use of the entry, for the pruning
+      entryFile.setLastModified(System.currentTimeMillis());
+      return openAPI;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Spec cache entry " + entryFile + " ignored: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Stores the specification in the cache, unless it references remote files or cannot be restored as is.
+   *
+   * @param inputSpec the path of the specification
+   * @param parseOptions the options of the parsing and of the validation of the specification
+   * @param openAPI the specification, as resolved by the parser
+   */
+  public void store(String inputSpec, String parseOptions, OpenAPI openAPI) {
+    File entryFile = getEntryFile(inputSpec, parseOptions);
+    if (entryFile == null || openAPI == null) {
+      return;
+    }
+    try {
+      Map<String, String> files = new TreeMap<String, String>();
+      if (!hashReferencedFiles(new File(inputSpec).getAbsoluteFile(), files)) {
+        LOGGER.info("Spec cache skipped for " + inputSpec + ": remote references cannot be checked");
+        return;
+      }
+      SpecVersion specVersion = openAPI.getSpecVersion() != null ? openAPI.getSpecVersion() : SpecVersion.V30;
+      ObjectMapper mapper = getMapper(specVersion);
+      JsonNode tree = mapper.valueToTree(openAPI);
+      // the cached specification must give exactly the same generation, checked on demand as it costs a full restore
+      if (isVerified() && !tree.equals(mapper.valueToTree(mapper.treeToValue(tree, OpenAPI.class)))) {
+        LOGGER.info("Spec cache skipped for " + inputSpec + ": the specification cannot be restored from its serialization");
+        return;
+      }
+      ObjectNode entry = Json.mapper().createObjectNode();
+      entry.put("inputSpec", new File(inputSpec).getAbsolutePath());
+      entry.put("specVersion", specVersion.name());
+      entry.set("files", Json.mapper().valueToTree(files));
+      entry.set("openapi", tree);
+
+      folder.mkdirs();
+      // written in a temporary file first, as concurrent generations may read the entry
+      File tempFile = File.createTempFile(entryFile.getName(), ".tmp", folder);
+      try (OutputStream output = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        Json.mapper().writeValue(output, entry);
+      }
+      Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Spec cache entry not stored for " + inputSpec + ": " + e.getMessage());
+    }
+    prune();
+  }
+
+  /**
+   * Deletes the entries not used for {@link #MAX_ENTRY_AGE_DAYS} days, and the least recently used entries beyond
+   * {@link #MAX_ENTRIES}.
+   */
+  void prune() {
+    File[] entryFiles = folder.listFiles((dir, name) -> name.endsWith(ENTRY_EXTENSION));
+    if (entryFiles == null) {
+      return;
+    }
+    // the modification times are read once, as concurrent generations may update them
+    Map<File, Long> lastUses = new HashMap<File, Long>();
+    for (File entryFile : entryFiles) {
+      lastUses.put(entryFile, entryFile.lastModified());
+    }
+    Arrays.sort(entryFiles, (a, b) -> Long.compare(lastUses.get(b), lastUses.get(a)));
+    long oldestUse = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_ENTRY_AGE_DAYS);
+    int deleted = 0;
+    for (int i = 0; i < entryFiles.length; i++) {
+      if ((i >= MAX_ENTRIES || lastUses.get(entryFiles[i]) < oldestUse) && entryFiles[i].delete()) {
+        deleted++;
+      }
+    }
+    if (deleted > 0) {
+      LOGGER.info("Spec cache: " + deleted + " unused entries deleted from " + folder);
+    }
+  }
+
+  /**
+   * @return true if the specifications are restored from their serialization before being stored, to check that the
+   * cache gives the same generation (GlobalSettings: specCacheVerify, default: false)
+   */
+  private static boolean isVerified() {
+    String verify = GlobalSettings.getProperty(VERIFY_PROPERTY);
+    return verify != null && !"false".equalsIgnoreCase(verify);
+  }
+
+  private static ObjectMapper getMapper(SpecVersion specVersion) {
+    return specVersion == SpecVersion.V31 ? Json31.mapper() : Json.mapper();
+  }
+
+  /**
+   * @return the entry file of the specification, or null if it cannot be read
+   */
+  private File getEntryFile(String inputSpec, String parseOptions) {
+    String contentHash = hashFile(new File(inputSpec));
+    if (contentHash == null) {
+      return null;
+    }
+    String key = SpecFingerprint.hash(getParserFingerprint() + '|' + parseOptions + '|' + new File(inputSpec).getAbsolutePath() + '|' + contentHash);
+    return new File(folder, key + ENTRY_EXTENSION);
+  }
+
+  /**
+   * Hashes the given file and, transitively, the local files it references.
+   *
+   * @param file the specification file
+   * @param hashes the hashes of the files, by absolute path
+   * @return false if a remote file is referenced
+   */
+  private static boolean hashReferencedFiles(File file, Map<String, String> hashes) throws IOException {
+    String path = file.toPath().normalize().toString();
+    if (hashes.containsKey(path)) {
+      return true;
+    }
+    String hash = hashFile(file);
+    if (hash == null) {
+      throw new FileNotFoundException("Referenced file " + path + " not found");
+    }
+    hashes.put(path, hash);
+    ObjectMapper mapper = file.getName().endsWith(".json") ? Json.mapper() : Yaml.mapper();
+    Set<String> references = new HashSet<String>();
+    SpecFingerprint.collectReferences(mapper.readTree(file), references);
+    for (String reference : references) {
+      int fragmentIndex = reference.indexOf('#');
+      String location = fragmentIndex >= 0 ? reference.substring(0, fragmentIndex) : reference;
+      if (location.isEmpty()) {
+        continue;
+      }
+      if (location.contains("://")) {
+        return false;
+      }
+      if (!hashReferencedFiles(new File(file.getParentFile(), location), hashes)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the hexadecimal SHA-256 hash of the file, or null if it cannot be read
+   */
+  private static String hashFile(File file) {
+    try {
+      return SpecFingerprint.toHex(SpecFingerprint.newDigest().digest(Files.readAllBytes(file.toPath())));
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return the fingerprint of the libraries parsing and resolving the specification, so an update of the generator
+   * invalidates the cache
+   */
+  static String getParserFingerprint() {
+    if (parserFingerprint == null) {
+      StringBuilder fingerprint = new StringBuilder();
+      List<File> folders = new ArrayList<File>();
+      for (Class<?> clazz : Arrays.<Class<?>>asList(OpenAPIParser.class, OpenAPIV3Parser.class, SwaggerConverter.class,
+        SwaggerParser.class, OpenAPI.class, Json.class, CodegenConfigurator.class)) {
+        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        File location;
+        try {
+          location = codeSource != null ? new File(codeSource.getLocation().toURI()) : null;
+        } catch (URISyntaxException e) {
+          location = null;
+        }
+        if (location != null && location.isFile()) {
+          // the released jars are not modified in place, reading their whole content is not needed
+          fingerprint.append(location.getAbsolutePath()).append('|').append(location.length()).append('|').append(location.lastModified()).append('\n');
+        } else if (location != null) {
+          folders.add(location);
+        } else {
+          fingerprint.append(clazz.getName()).append('\n');
+        }
+      }
+      fingerprint.append(GenerationManifest.hashSources(Collections.<Class<?>>emptyList(), folders));
+      parserFingerprint = SpecFingerprint.hash(fingerprint.toString());
+    }
+    return parserFingerprint;
+  }
+}
@@ -0,0 +1,263 @@
+package com.amadeus.codegen.ts;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * Otter-specific: Computes content fingerprints of the parts of an OpenAPI specification each generated file depends on.
+ *
+ * - A model depends on its schema and on the schemas extending it (allOf, oneOf, anyOf), as the generator lists the
+ *   children of a model, and on every component they reference transitively (including the x-field-type models).
+ * - An API (tag) depends on its operations, their path and on every component they reference (transitively).
+ * - Everything else (info, servers, security...) is part of the specification fingerprint shared by all the files.
+ *
+ * The fingerprints are SHA-256 hashes of the JSON serialization of the specification, so they change with any
+ * modification of the inputs, including the order of the keys.
+ */
+public class SpecFingerprint {
+
+  static final String REF = "$ref";
+
+  /** Vendor extension naming the model of a dictionary property, which is imported as if referenced */
+  static final String FIELD_TYPE_EXTENSION = "x-field-type";
+
+  static final String COMPONENTS_POINTER = "#/components/";
+
+  static final String SCHEMAS_POINTER = COMPONENTS_POINTER + "schemas/";
+
+  static final String[] HTTP_METHODS = {"get", "head", "put", "post", "delete", "patch", "options", "trace"};
+
+  static final String[] COMPOSITION_KEYWORDS = {"allOf", "oneOf", "anyOf"};
+
+  private final JsonNode root;
+
+  /** Hash of each component node, by reference */
+  private final Map<String, String> componentHashes = new HashMap<String, String>();
+
+  /** Components directly referenced by each component, by reference */
+  private final Map<String, Set<String>> componentReferences = new HashMap<String, Set<String>>();
+
+  /** Schemas extending each schema through a composition keyword, by reference */
+  private final Map<String, Set<String>> schemaChildren = new HashMap<String, Set<String>>();
+
+  /**
+   * @param openAPI the specification, after its normalization by the generator
+   */
+  public SpecFingerprint(OpenAPI openAPI) {
+    this.root = Json.mapper().valueToTree(openAPI);
+    JsonNode schemas = root.path("components").path("schemas");
+    for (Map.Entry<String, JsonNode> field : schemas.properties()) {
+      String reference = SCHEMAS_POINTER + field.getKey();
+      for (String keyword : COMPOSITION_KEYWORDS) {
+        for (JsonNode item : field.getValue().path(keyword)) {
+          String parent = item.path(REF).asText(null);
+          if (parent != null) {
+            Set<String> children = schemaChildren.get(parent);
+            if (children == null) {
+              children = new TreeSet<String>();
+              schemaChildren.put(parent, children);
+            }
+            children.add(reference);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the fingerprint of each schema, by schema name
+   */
+  public Map<String, String> getModelFingerprints() {
+    Map<String, String> fingerprints = new TreeMap<String, String>();
+    Iterator<String> names = root.path("components").path("schemas").fieldNames();
+    while (names.hasNext()) {
+      String name = names.next();
+      String reference = SCHEMAS_POINTER + name;
+      Set<String> references = new TreeSet<String>();
+      references.add(reference);
+      // the model lists its children, their own references do not impact it
+      Set<String> children = schemaChildren.get(reference);
+      if (children != null) {
+        references.addAll(children);
+      }
+      fingerprints.put(name, hashClosure(Collections.<JsonNode>emptyList(), references));
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Computes the fingerprint of each API, grouping the operations per tag as the generator does.
+   *
+   * @param tagSanitizer function turning a tag name into the API key (e.g. CodegenConfig::sanitizeTag)
+   * @return the fingerprint of each API, by sanitized tag
+   */
+  public Map<String, String> getApiFingerprints(Function<String, String> tagSanitizer) {
+    Map<String, List<JsonNode>> operationsByTag = new TreeMap<String, List<JsonNode>>();
+    for (Map.Entry<String, JsonNode> path : root.path("paths").properties()) {
+      JsonNode pathItem = path.getValue();
+      for (String method : HTTP_METHODS) {
+        JsonNode operation = pathItem.get(method);
+        if (operation == null) {
+          continue;
+        }
+        // the path, the method and the path item parameters are part of the operation inputs
+        ObjectNode inputs = Json.mapper().createObjectNode();
+        inputs.put("path", path.getKey());
+        inputs.put("method", method);
+        inputs.set("parameters", pathItem.path("parameters"));
+        inputs.set("servers", pathItem.path("servers"));
+        inputs.set("operation", operation);
+        List<String> tags = new ArrayList<String>();
+        for (JsonNode tag : operation.path("tags")) {
+          tags.add(tag.asText());
+        }
+        if (tags.isEmpty()) {
+          tags.add("default");
+        }
+        for (String tag : tags) {
+          String key = tagSanitizer.apply(tag);
+          List<JsonNode> operations = operationsByTag.get(key);
+          if (operations == null) {
+            operations = new ArrayList<JsonNode>();
+            operationsByTag.put(key, operations);
+          }
+          operations.add(inputs);
+        }
+      }
+    }
+
+    Map<String, String> fingerprints = new TreeMap<String, String>();
+    for (Map.Entry<String, List<JsonNode>> entry : operationsByTag.entrySet()) {
+      Set<String> references = new TreeSet<String>();
+      for (JsonNode operation : entry.getValue()) {
+        collectReferences(operation, references);
+      }
+      fingerprints.put(entry.getKey(), hashClosure(entry.getValue(), references));
+    }
+    return fingerprints;
+  }
+
+  /**
+   * @return the fingerprint of the specification without its paths and components (info, servers, security...)
+   */
+  public String getSpecificationFingerprint() {
+    ObjectNode specification = root.deepCopy();
+    specification.remove("paths");
+    JsonNode components = specification.path("components");
+    if (components instanceof ObjectNode) {
+      ((ObjectNode) components).retain("securitySchemes");
+    }
+    return hash(specification.toString());
+  }
+
+  /**
+   * Hashes the given nodes and the components they reference transitively.
+   */
+  private String hashClosure(List<JsonNode> nodes, Set<String> references) {
+    Set<String> closure = new TreeSet<String>();
+    Deque<String> toVisit = new ArrayDeque<String>(references);
+    while (!toVisit.isEmpty()) {
+      String reference = toVisit.pop();
+      if (!closure.add(reference)) {
+        continue;
+      }
+      toVisit.addAll(getReferences(reference));
+    }
+
+    StringBuilder content = new StringBuilder();
+    for (JsonNode node : nodes) {
+      content.append(node.toString()).append('\n');
+    }
+    for (String reference : closure) {
+      content.append(reference).append('=').append(getComponentHash(reference)).append('\n');
+    }
+    return hash(content.toString());
+  }
+
+  private Set<String> getReferences(String reference) {
+    Set<String> references = componentReferences.get(reference);
+    if (references == null) {
+      references = new TreeSet<String>();
+      collectReferences(getComponent(reference), references);
+      componentReferences.put(reference, references);
+    }
+    return references;
+  }
+
+  private String getComponentHash(String reference) {
+    String componentHash = componentHashes.get(reference);
+    if (componentHash == null) {
+      componentHash = hash(getComponent(reference).toString());
+      componentHashes.put(reference, componentHash);
+    }
+    return componentHash;
+  }
+
+  private JsonNode getComponent(String reference) {
+    if (!reference.startsWith(COMPONENTS_POINTER)) {
+      // external references are resolved by the parser, an unknown reference does not have any content
+      return MissingNode.getInstance();
+    }
+    return root.at(reference.substring(1));
+  }
+
+  static void collectReferences(JsonNode node, Set<String> references) {
+    if (node.isObject()) {
+      for (Map.Entry<String, JsonNode> field : node.properties()) {
+        if (REF.equals(field.getKey()) && field.getValue().isTextual()) {
+          references.add(field.getValue().asText());
+        } else if (FIELD_TYPE_EXTENSION.equals(field.getKey()) && field.getValue().isTextual()) {
+          references.add(SCHEMAS_POINTER + field.getValue().asText());
+        } else {
+          collectReferences(field.getValue(), references);
+        }
+      }
+    } else if (node.isArray()) {
+      for (JsonNode item : node) {
+        collectReferences(item, references);
+      }
+    }
+  }
+
+  /**
+   * @param content the content to hash
+   * @return the hexadecimal SHA-256 hash of the content
+   */
+  public static String hash(String content) {
+    return toHex(newDigest().digest(content.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * @return a new SHA-256 message digest
+   */
+  public static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is supported by every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param bytes the bytes to format
+   * @return the hexadecimal representation of the bytes
+   */
+  public static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,179 @@
+package com.amadeus.codegen.ts;
+
+import java.util.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+
+import static com.amadeus.codegen.ts.SpecFingerprint.*;
+
+/**
+ * Otter-specific: Reachability-based tree shaking of a specification, to generate only the operations selected by tag
+ * or operationId and the models they use.
+ *
+ * The models used by the selected operations are the transitive closure of the components referenced by the
+ * operations: references ($ref), dictionary field types (x-field-type vendor extension) and, for the schemas with a
+ * discriminator, their mapped models, the models named by the values of the discriminator property and the schemas
+ * extending them (allOf, oneOf, anyOf), as all of them may be revived as subtypes.
+ *
+ * The other operations and schemas are flagged with the x-internal vendor extension, which the generator honors by
+ * not generating them.
+ */
+public class TreeShaking {
+
+  /** Vendor extension excluding an operation or a schema from the generation */
+  private static final String INTERNAL_EXTENSION = "x-internal";
+
+  private final JsonNode root;
+
+  /** Schemas extending each schema through a composition keyword, by reference */
+  private final Map<String, Set<String>> schemaChildren = new HashMap<String, Set<String>>();
+
+  private int selectedOperations;
+
+  private int operations;
+
+  private int reachableSchemas;
+
+  private int schemas;
+
+  /**
+   * @param openAPI the specification, after its normalization by the generator
+   */
+  public TreeShaking(OpenAPI openAPI) {
+    this.root = Json.mapper().valueToTree(openAPI);
+    for (Map.Entry<String, JsonNode> field : root.path("components").path("schemas").properties()) {
+      for (String keyword : COMPOSITION_KEYWORDS) {
+        for (JsonNode item : field.getValue().path(keyword)) {
+          String parent = item.path(REF).asText(null);
+          if (parent != null) {
+            Set<String> children = schemaChildren.get(parent);
+            if (children == null) {
+              children = new LinkedHashSet<String>();
+              schemaChildren.put(parent, children);
+            }
+            children.add(SCHEMAS_POINTER + field.getKey());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Flags the operations which are not selected and the schemas they do not use with the x-internal vendor extension.
+   *
+   * @param openAPI the specification the tree shaking has been created for
+   * @param selection the tags and operationIds of the operations to generate
+   */
+  public void apply(OpenAPI openAPI, Set<String> selection) {
+    Set<String> references = new LinkedHashSet<String>();
+    if (openAPI.getPaths() != null) {
+      for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+        JsonNode pathNode = root.path("paths").path(path.getKey());
+        Map<PathItem.HttpMethod, Operation> pathOperations = path.getValue() != null ? path.getValue().readOperationsMap() : Collections.<PathItem.HttpMethod, Operation>emptyMap();
+        for (Map.Entry<PathItem.HttpMethod, Operation> entry : pathOperations.entrySet()) {
+          Operation operation = entry.getValue();
+          operations++;
+          if (isSelected(operation, selection)) {
+            selectedOperations++;
+            collectReferences(pathNode.path(entry.getKey().name().toLowerCase(Locale.ROOT)), references);
+            collectReferences(pathNode.path("parameters"), references);
+          } else {
+            operation.addExtension(INTERNAL_EXTENSION, true);
+          }
+        }
+      }
+    }
+
+    Set<String> closure = getClosure(references);
+    if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
+      for (String name : openAPI.getComponents().getSchemas().keySet()) {
+        Schema<?> schema = openAPI.getComponents().getSchemas().get(name);
+        schemas++;
+        if (closure.contains(SCHEMAS_POINTER + name)) {
+          reachableSchemas++;
+        } else {
+          schema.addExtension(INTERNAL_EXTENSION, true);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return a summary of the operations and schemas kept by the tree shaking
+   */
+  public String getSummary() {
+    return "Tree shaking: " + selectedOperations + " of " + operations + " operations and " + reachableSchemas + " of "
+      + schemas + " schemas generated";
+  }
+
+  private static boolean isSelected(Operation operation, Set<String> selection) {
+    if (operation.getOperationId() != null && selection.contains(operation.getOperationId())) {
+      return true;
+    }
+    List<String> tags = operation.getTags() != null && !operation.getTags().isEmpty() ? operation.getTags() : Collections.singletonList("default");
+    for (String tag : tags) {
+      if (selection.contains(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Computes the components referenced transitively by the given references, including the discriminator subtypes.
+   */
+  private Set<String> getClosure(Set<String> references) {
+    Set<String> closure = new HashSet<String>();
+    // schemas with a discriminator, or extending one, whose children are subtypes
+    Set<String> discriminated = new HashSet<String>();
+    Deque<String> toVisit = new ArrayDeque<String>(references);
+    while (!toVisit.isEmpty()) {
+      String reference = toVisit.pop();
+      if (!closure.add(reference) || !reference.startsWith(COMPONENTS_POINTER)) {
+        continue;
+      }
+      JsonNode component = root.at(reference.substring(1));
+      Set<String> componentReferences = new LinkedHashSet<String>();
+      collectReferences(component, componentReferences);
+      toVisit.addAll(componentReferences);
+
+      JsonNode discriminator = component.path("discriminator");
+      if (!discriminator.isMissingNode() || discriminated.contains(reference)) {
+        collectSubTypes(component, discriminator, toVisit);
+        Set<String> children = schemaChildren.get(reference);
+        if (children != null) {
+          discriminated.addAll(children);
+          toVisit.addAll(children);
+        }
+      }
+    }
+    return closure;
+  }
+
+  /**
+   * Collects the models of the discriminator mapping and the models named by the values of the discriminator property.
+   */
+  private void collectSubTypes(JsonNode component, JsonNode discriminator, Deque<String> toVisit) {
+    Iterator<JsonNode> mappedModels = discriminator.path("mapping").elements();
+    while (mappedModels.hasNext()) {
+      String mappedModel = mappedModels.next().asText();
+      toVisit.add(mappedModel.startsWith("#") ? mappedModel : SCHEMAS_POINTER + mappedModel);
+    }
+    String propertyName = discriminator.path("propertyName").asText(null);
+    if (propertyName != null) {
+      for (JsonNode value : component.path("properties").path(propertyName).path("enum")) {
+        // the generator sanitizes the leading underscore of the values naming a model
+        String modelName = value.asText().startsWith("_") ? value.asText().substring(1) : value.asText();
+        if (root.path("components").path("schemas").has(modelName)) {
+          toVisit.add(SCHEMAS_POINTER + modelName);
+        }
+      }
+    }
+  }
+}
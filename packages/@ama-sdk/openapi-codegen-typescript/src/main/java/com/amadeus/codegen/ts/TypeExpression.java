@@ -0,0 +1,324 @@
+package com.amadeus.codegen.ts;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Otter-specific: Parsed TypeScript type expression, as written by the generator in the data types.
+ *
+ * Supported syntax: type names (including qualified names and string literals), generics (`Record<string, Pet>`),
+ * arrays (`Pet[]` or `Array<Pet>`), unions (`A | B`), intersections (`A & B`) and parenthesized types.
+ *
+ * The expressions are rendered with the array suffix syntax (`Array<Pet>` is rendered `Pet[]`), adding the parentheses
+ * required by the unions and intersections (`Array<A | B>` is rendered `(A | B)[]`).
+ */
+public final class TypeExpression {
+
+  /** Kind of a type expression */
+  public enum Kind {
+    /** Type name or literal */
+    NAME,
+    /** Array of the single child */
+    ARRAY,
+    /** Generic type: name and type arguments */
+    GENERIC,
+    /** Union of the children */
+    UNION,
+    /** Intersection of the children */
+    INTERSECTION
+  }
+
+  private final Kind kind;
+
+  private final String name;
+
+  private final List<TypeExpression> children;
+
+  private TypeExpression(Kind kind, String name, List<TypeExpression> children) {
+    this.kind = kind;
+    this.name = name;
+    this.children = children;
+  }
+
+  /**
+   * @return the kind of the expression
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return the name of a type name or of a generic type, null otherwise
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the element of an array, the type arguments of a generic type or the members of a union or intersection
+   */
+  public List<TypeExpression> getChildren() {
+    return children;
+  }
+
+  /**
+   * Parses a type expression.
+   *
+   * @param type the type expression
+   * @return the parsed type expression
+   * @throws IllegalArgumentException if the type uses an unsupported syntax (e.g. object literal types)
+   */
+  public static TypeExpression parse(String type) {
+    Parser parser = new Parser(type);
+    TypeExpression expression = parser.parseType();
+    parser.skipWhitespaces();
+    if (parser.index < type.length()) {
+      throw parser.error();
+    }
+    return expression;
+  }
+
+  /**
+   * @return the TypeScript rendering of the expression, with the array suffix syntax
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    render(builder);
+    return builder.toString();
+  }
+
+  private void render(StringBuilder builder) {
+    switch (kind) {
+      case ARRAY:
+        TypeExpression element = children.get(0);
+        boolean parenthesized = element.kind == Kind.UNION || element.kind == Kind.INTERSECTION;
+        if (parenthesized) {
+          builder.append('(');
+        }
+        element.render(builder);
+        builder.append(parenthesized ? ")[]" : "[]");
+        break;
+      case GENERIC:
+        builder.append(name).append('<');
+        for (int i = 0; i < children.size(); i++) {
+          if (i > 0) {
+            builder.append(", ");
+          }
+          children.get(i).render(builder);
+        }
+        builder.append('>');
+        break;
+      case UNION:
+      case INTERSECTION:
+        for (int i = 0; i < children.size(); i++) {
+          if (i > 0) {
+            builder.append(kind == Kind.UNION ? " | " : " & ");
+          }
+          TypeExpression member = children.get(i);
+          boolean nestedUnion = kind == Kind.INTERSECTION && member.kind == Kind.UNION;
+          if (nestedUnion) {
+            builder.append('(');
+          }
+          member.render(builder);
+          if (nestedUnion) {
+            builder.append(')');
+          }
+        }
+        break;
+      default:
+        builder.append(name);
+    }
+  }
+
+  /**
+   * Recursive descent parser of the type expressions.
+   */
+  private static final class Parser {
+
+    private final String type;
+
+    private int index;
+
+    private Parser(String type) {
+      this.type = type;
+    }
+
+    private TypeExpression parseType() {
+      return parseComposition(Kind.UNION, '|');
+    }
+
+    private TypeExpression parseComposition(Kind kind, char separator) {
+      List<TypeExpression> members = new ArrayList<TypeExpression>();
+      do {
+        members.add(kind == Kind.UNION ? parseComposition(Kind.INTERSECTION, '&') : parsePostfix());
+      } while (consume(separator));
+      return members.size() == 1 ? members.get(0) : new TypeExpression(kind, null, Collections.unmodifiableList(members));
+    }
+
+    private TypeExpression parsePostfix() {
+      TypeExpression expression = parsePrimary();
+      while (consume('[')) {
+        if (!consume(']')) {
+          throw error();
+        }
+        expression = new TypeExpression(Kind.ARRAY, null, Collections.singletonList(expression));
+      }
+      return expression;
+    }
+
+    private TypeExpression parsePrimary() {
+      if (consume('(')) {
+        TypeExpression expression = parseType();
+        if (!consume(')')) {
+          throw error();
+        }
+        return expression;
+      }
+      String name = parseName();
+      if (!consume('<')) {
+        return new TypeExpression(Kind.NAME, name, Collections.<TypeExpression>emptyList());
+      }
+      List<TypeExpression> arguments = new ArrayList<TypeExpression>();
+      do {
+        arguments.add(parseType());
+      } while (consume(','));
+      if (!consume('>')) {
+        throw error();
+      }
+      if ("Array".equals(name) && arguments.size() == 1) {
+        return new TypeExpression(Kind.ARRAY, null, Collections.singletonList(arguments.get(0)));
+      }
+      return new TypeExpression(Kind.GENERIC, name, Collections.unmodifiableList(arguments));
+    }
+
+    private String parseName() {
+      skipWhitespaces();
+      int start = index;
+      if (index < type.length() && (type.charAt(index) == '\'' || type.charAt(index) == '"')) {
+        int end = type.indexOf(type.charAt(index), index + 1);
+        if (end < 0) {
+          throw error();
+        }
+        index = end + 1;
+        return type.substring(start, index);
+      }
+      while (index < type.length() && (Character.isJavaIdentifierPart(type.charAt(index)) || type.charAt(index) == '.')) {
+        index++;
+      }
+      if (start == index) {
+        throw error();
+      }
+      return type.substring(start, index);
+    }
+
+    private boolean consume(char expected) {
+      skipWhitespaces();
+      if (index < type.length() && type.charAt(index) == expected) {
+        index++;
+        return true;
+      }
+      return false;
+    }
+
+    private void skipWhitespaces() {
+      while (index < type.length() && Character.isWhitespace(type.charAt(index))) {
+        index++;
+      }
+    }
+
+    private IllegalArgumentException error() {
+      return new IllegalArgumentException("Unsupported type expression " + type + " at index " + index);
+    }
+  }
+
+  /**
+   * Intern cache of the type expressions of a generation: each distinct type is parsed and rendered once.
+   */
+  public static final class Cache {
+
+    /** Types with the array suffix syntax, by type */
+    private final Map<String, String> arraySyntaxTypes = new ConcurrentHashMap<String, String>();
+
+    /** Array types, by element type */
+    private final Map<String, String> arrayTypes = new ConcurrentHashMap<String, String>();
+
+    /** Record types, by value type */
+    private final Map<String, String> recordTypes = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Converts the Array<T> syntax of a type to the T[] syntax, at any nesting level
+     * (e.g. Array<Record<string, Array<Pet>>> becomes Record<string, Pet[]>[]).
+     *
+     * @param type the type to convert
+     * @return the type with the array suffix syntax
+     */
+    public String toArraySyntax(String type) {
+      if (!type.contains("Array<")) {
+        return type;
+      }
+      String converted = arraySyntaxTypes.get(type);
+      if (converted == null) {
+        try {
+          converted = parse(type).toString();
+        } catch (IllegalArgumentException e) {
+          converted = replaceArraySyntax(type);
+        }
+        arraySyntaxTypes.put(type, converted);
+      }
+      return converted;
+    }
+
+    /**
+     * @param elementType the type of the elements
+     * @return the type of an array of the elements (e.g. Pet[], (Cat | Dog)[])
+     */
+    public String arrayOf(String elementType) {
+      String arrayType = arrayTypes.get(elementType);
+      if (arrayType == null) {
+        Kind kind;
+        try {
+          kind = parse(elementType).getKind();
+        } catch (IllegalArgumentException e) {
+          kind = Kind.NAME;
+        }
+        arrayType = kind == Kind.UNION || kind == Kind.INTERSECTION ? '(' + elementType + ")[]" : elementType + "[]";
+        arrayTypes.put(elementType, arrayType);
+      }
+      return arrayType;
+    }
+
+    /**
+     * @param valueType the type of the values
+     * @return the type of a dictionary of the values (e.g. Record<string, Pet>)
+     */
+    public String recordOf(String valueType) {
+      String recordType = recordTypes.get(valueType);
+      if (recordType == null) {
+        recordType = "Record<string, " + valueType + ">";
+        recordTypes.put(valueType, recordType);
+      }
+      return recordType;
+    }
+
+    /**
+     * @return the number of distinct types in the cache
+     */
+    public int size() {
+      return arraySyntaxTypes.size() + arrayTypes.size() + recordTypes.size();
+    }
+
+    /**
+     * Converts the innermost Array<T> of a type which cannot be parsed, until no conversion applies.
+     */
+    private static String replaceArraySyntax(String type) {
+      String converted = type;
+      String previous;
+      do {
+        previous = converted;
+        converted = RegexPatterns.ARRAY_GENERIC.matcher(converted).replaceAll("$1[]");
+      } while (!converted.equals(previous));
+      return converted;
+    }
+  }
+}
@@ -115,7 +115,7 @@ public class TypescriptfetchGenerator extends AbstractTypeScriptClientCodegen {
         if (basePath == null) {
           basePath = "";
         }
-        basePath = basePath.replaceAll("/$", "");
+        basePath = RegexPatterns.TRAILING_SLASH.matcher(basePath).replaceAll("");
       } catch (Exception e) {
         LOGGER.warn("Failed to parse server URL: " + serverUrl);
       }
@@ -130,8 +130,8 @@ public class TypescriptfetchGenerator extends AbstractTypeScriptClientCodegen {
       }
 
       // Convert path parameters to regex pattern
-      String urlPattern = path.replaceAll("\\{[^}]+\\}", "((?:[^/]+?))") + "(?:/(?=$))?$";
-      String regexpPattern = "^" + (basePath + urlPattern).replaceAll("^/{2,}", "/");
+      String urlPattern = RegexPatterns.PATH_PARAMETER.matcher(path).replaceAll("((?:[^/]+?))") + "(?:/(?=$))?$";
+      String regexpPattern = "^" + RegexPatterns.LEADING_SLASHES.matcher(basePath + urlPattern).replaceAll("/");
 
       List<Map<String, String>> operations = new ArrayList<>();
 
@@ -162,6 +162,13 @@ public class TypescriptfetchGenerator extends AbstractTypeScriptClientCodegen {
     }
 
     additionalProperties.put("operationAdapterPaths", operationAdapterPaths);
+
+    // Otter-specific: route index resolving the operation of a request without testing the regular expression of every path
+    List<String> paths = new ArrayList<>(operationAdapterPaths.size());
+    for (Map<String, Object> pathData : operationAdapterPaths) {
+      paths.add((String) pathData.get("path"));
+    }
+    additionalProperties.put("operationAdapterIndex", new OperationAdapterIndex(paths).toTemplateData());
   }
 
 }
@@ -0,0 +1,102 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the incremental generation produces the same files as a full generation over the same output directory.
+ */
+class IncrementalGenerationTest {
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void skipsTheFilesOfTheUnchangedSpecification() throws IOException {
+    File spec = TestGenerations.copySpec("revivers.yaml", new File(tempDir, "spec.yaml"));
+    File outputDir = new File(tempDir, "incremental");
+    TestGenerations.generate(spec, outputDir, "incrementalGeneration", "stringifyDate=false");
+    AbstractTypeScriptClientCodegen codegen = TestGenerations.generate(spec, outputDir, "incrementalGeneration", "stringifyDate=false");
+
+    assertTrue(codegen.getGenerationMetrics().getCounter("filesSkipped") > 0);
+    File fullOutputDir = new File(tempDir, "full");
+    TestGenerations.generate(spec, fullOutputDir, "stringifyDate=false");
+    assertEquals(TestGenerations.readFiles(fullOutputDir), TestGenerations.readFiles(outputDir));
+  }
+
+  @Test
+  void regeneratesTheModelsWhoseComputedFlagsChanged() throws IOException {
+    // the Location model is unchanged but its reviver depends on the dictionary of the A model
+    assertSameGenerations("dictionary removed",
+      "revivers.yaml", "stringifyDate=false:perModelRevivers",
+      "revivers-without-dictionary.yaml", "stringifyDate=false:perModelRevivers");
+    assertSameGenerations("dictionary added",
+      "revivers-without-dictionary.yaml", "stringifyDate=false:perModelRevivers",
+      "revivers.yaml", "stringifyDate=false:perModelRevivers");
+  }
+
+  @Test
+  void regeneratesTheFilesOfTheChangedSpecification() throws IOException {
+    assertSameGenerations("specification changes",
+      "revivers.yaml", "stringifyDate=false",
+      "revivers-without-dictionary.yaml", "stringifyDate=false",
+      "revivers.yaml", "stringifyDate=false");
+  }
+
+  @Test
+  void regeneratesTheFilesOfTheChangedOptions() throws IOException {
+    assertSameGenerations("perModelRevivers toggled",
+      "revivers.yaml", "stringifyDate=false:perModelRevivers",
+      "revivers.yaml", "stringifyDate=false",
+      "revivers.yaml", "stringifyDate=false:perModelRevivers");
+    assertSameGenerations("lazyRevivers toggled",
+      "revivers.yaml", "stringifyDate=false:lazyRevivers",
+      "revivers.yaml", "stringifyDate=false");
+    assertSameGenerations("treeShaking changed",
+      "revivers.yaml", "stringifyDate=false:treeShaking=getB",
+      "revivers.yaml", "stringifyDate=false:treeShaking=getA",
+      "revivers.yaml", "stringifyDate=false");
+  }
+
+  @Test
+  void fingerprintsTheOptionsChangingTheFiles() throws IOException {
+    File spec = TestGenerations.copySpec("revivers.yaml", new File(tempDir, "spec.yaml"));
+    String[] options = {"perModelRevivers=false", "perModelRevivers", "lazyRevivers", "treeShaking=getA", "treeShaking=getB"};
+    Set<String> fingerprints = new HashSet<String>();
+    for (String option : options) {
+      AbstractTypeScriptClientCodegen codegen = TestGenerations.generate(spec, new File(tempDir, option), "stringifyDate=false", option);
+      assertTrue(fingerprints.add(codegen.getGenerationFingerprint()), option);
+    }
+  }
+
+  /**
+   * Runs the generations one after the other in the same output directory, with and without the incremental generation,
+   * and compares the files of the last generations.
+   *
+   * @param label the label of the generations, also naming their output directories
+   * @param generations the name of the specification and the global properties (colon separated) of each generation
+   */
+  private void assertSameGenerations(String label, String... generations) throws IOException {
+    File spec = new File(tempDir, "spec.yaml");
+    File incrementalOutputDir = new File(tempDir, "incremental-" + label);
+    File fullOutputDir = new File(tempDir, "full-" + label);
+    for (int i = 0; i < generations.length; i += 2) {
+      TestGenerations.copySpec(generations[i], spec);
+      String[] globalProperties = generations[i + 1].split(":");
+      TestGenerations.generate(spec, fullOutputDir, globalProperties);
+      String[] incrementalProperties = Arrays.copyOf(globalProperties, globalProperties.length + 1);
+      incrementalProperties[globalProperties.length] = "incrementalGeneration";
+      TestGenerations.generate(spec, incrementalOutputDir, incrementalProperties);
+    }
+    assertEquals(TestGenerations.readFiles(fullOutputDir), TestGenerations.readFiles(incrementalOutputDir), label);
+  }
+}
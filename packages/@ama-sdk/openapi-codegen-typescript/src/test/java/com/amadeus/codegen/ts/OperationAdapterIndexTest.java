@@ -0,0 +1,269 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the lookup of getOperationAdapterPath (spec/operation-adapter.mustache) in the {@link OperationAdapterIndex}
+ * selects the same path as the getPath helper of @ama-sdk/core testing the URL pattern of every path. Both TypeScript
+ * functions are transcribed below and run on the operation adapter data of generated specifications.
+ */
+class OperationAdapterIndexTest {
+
+  private static final String[] METHODS = {"get", "post", "put", "delete", "patch"};
+
+  /** Paths with whole parameter segments, specificity ties, empty segments and fallback paths */
+  private static final String[] PATHS = {
+    "/", "/pets", "/pets/", "/pets/{petId}", "/pets/mine", "/{kind}/mine", "/{kind}/{id}", "/pets/{petId}/tags",
+    "/pets/{petId}/tags/{tagId}", "/stores/{storeId}/pets/{petId}", "/{a}", "/a//b", "/pets/{petId}.json",
+    "/files/{name}.{ext}", "/pets/mine.json", "/v1.0/pets", "/__proto__", "/pets/__proto__", "/constructor",
+    "/toString/{id}", "/a+b/{id}", "/a~b:c@d!e,f;g=h%20", "/orders(1)/{id}", "/pets/{petId}/tags/{tagId}/"
+  };
+
+  /** Segments of the random paths */
+  private static final String[] PATH_SEGMENTS = {"pets", "tags", "mine", "a", "b", "v1", "{id}", "{petId}", "{x}",
+    "{id}", "{id}.json", "a.b", "", "__proto__", "constructor", "x-y"};
+
+  /** Segments of the requested paths */
+  private static final String[] URL_SEGMENTS = {"pets", "tags", "mine", "a", "b", "v1", "1", "42", "mine.json",
+    "1.json", "a.b", "axb", "", "__proto__", "constructor", "toString", "x-y", "a+b", "aab", "v1.0", "orders(1)",
+    "orders1", "a~b:c@d!e,f;g=h%20", "stores", "files", "report.pdf", "api"};
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void selectsThePathsOfGetPath() throws IOException {
+    OperationAdapter adapter = generate(Arrays.asList(PATHS), new Random(42));
+    List<String> pathNames = new ArrayList<String>();
+    for (String path : PATHS) {
+      pathNames.add(path.replace("{petId}", "1").replace("{tagId}", "2").replace("{storeId}", "3").replace("{kind}", "pets")
+        .replace("{id}", "42").replace("{a}", "a").replace("{name}", "report").replace("{ext}", "pdf"));
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      pathNames.add(randomPath(random, URL_SEGMENTS));
+    }
+    assertSameSelections(adapter, pathNames);
+  }
+
+  @Test
+  void selectsThePathsOfGetPathForRandomSpecifications() throws IOException {
+    Random random = new Random(7);
+    for (int spec = 0; spec < 2; spec++) {
+      Set<String> paths = new LinkedHashSet<String>();
+      while (paths.size() < 100) {
+        paths.add(randomPath(random, PATH_SEGMENTS));
+      }
+      OperationAdapter adapter = generate(new ArrayList<String>(paths), random);
+      List<String> pathNames = new ArrayList<String>();
+      for (int i = 0; i < 3000; i++) {
+        pathNames.add(randomPath(random, URL_SEGMENTS));
+      }
+      assertSameSelections(adapter, pathNames);
+    }
+  }
+
+  private static void assertSameSelections(OperationAdapter adapter, List<String> pathNames) {
+    int matched = 0;
+    for (String pathName : pathNames) {
+      for (String prefix : new String[] {"", "/api"}) {
+        for (String method : new String[] {null, "GET", "post", "delete"}) {
+          Integer expected = adapter.getPath(prefix + pathName, method);
+          assertEquals(expected, adapter.getOperationAdapterPath(prefix + pathName, method), prefix + pathName + " " + method);
+          if (expected != null) {
+            matched++;
+          }
+        }
+      }
+    }
+    // the requested paths select various paths of the specification
+    assertTrue(matched > pathNames.size());
+  }
+
+  /**
+   * Generates the SDK of a specification with the given paths, each with some random operations.
+   *
+   * @return the operation adapter data of the generation
+   */
+  @SuppressWarnings("unchecked")
+  private OperationAdapter generate(List<String> paths, Random random) throws IOException {
+    StringBuilder spec = new StringBuilder("{\"openapi\": \"3.0.3\", \"info\": {\"title\": \"Paths\", \"version\": \"1.0.0\"}, \"paths\": {");
+    for (int index = 0; index < paths.size(); index++) {
+      spec.append(index > 0 ? ", " : "").append('"').append(paths.get(index)).append("\": {\"parameters\": [");
+      Set<String> parameters = new LinkedHashSet<String>();
+      Matcher parameter = RegexPatterns.PATH_PARAMETER.matcher(paths.get(index));
+      while (parameter.find()) {
+        parameters.add(parameter.group());
+      }
+      for (String name : parameters) {
+        spec.append(name.equals(parameters.iterator().next()) ? "" : ", ").append("{\"name\": \"").append(name, 1, name.length() - 1)
+          .append("\", \"in\": \"path\", \"required\": true, \"schema\": {\"type\": \"string\"}}");
+      }
+      spec.append("]");
+      int operationCount = 1 + random.nextInt(2);
+      for (int i = 0; i < operationCount; i++) {
+        String method = METHODS[(index + i * (1 + random.nextInt(METHODS.length - 1))) % METHODS.length];
+        spec.append(", \"").append(method).append("\": {\"operationId\": \"op").append(index).append(method)
+          .append("\", \"responses\": {\"200\": {\"description\": \"OK\"}}}");
+      }
+      spec.append('}');
+    }
+    spec.append("}}");
+    File specFile = new File(tempDir, "spec.json");
+    Files.write(specFile.toPath(), spec.toString().getBytes(StandardCharsets.UTF_8));
+    AbstractTypeScriptClientCodegen codegen = TestGenerations.generate(specFile, new File(tempDir, "sdk"));
+
+    OperationAdapter adapter = new OperationAdapter();
+    adapter.paths = (List<Map<String, Object>>) codegen.additionalProperties().get("operationAdapterPaths");
+    adapter.index = (Map<String, Object>) codegen.additionalProperties().get("operationAdapterIndex");
+    assertEquals(paths.size(), adapter.paths.size());
+    assertFalse(((List<Integer>) adapter.index.get("fallbackPaths")).size() == paths.size());
+    return adapter;
+  }
+
+  private static String randomPath(Random random, String[] segments) {
+    StringBuilder path = new StringBuilder();
+    int segmentCount = 1 + random.nextInt(4);
+    for (int i = 0; i < segmentCount; i++) {
+      path.append('/').append(segments[random.nextInt(segments.length)]);
+    }
+    return path.toString();
+  }
+
+  /**
+   * Operation adapter data of a generation, with the lookups of the TypeScript functions returning the index of the
+   * selected path.
+   */
+  private static class OperationAdapter {
+
+    private List<Map<String, Object>> paths;
+
+    private Map<String, Object> index;
+
+    /**
+     * Transcription of the getPath helper of @ama-sdk/core.
+     */
+    Integer getPath(String pathName, String method) {
+      List<Integer> matches = new ArrayList<Integer>();
+      for (int i = 0; i < paths.size(); i++) {
+        if (Pattern.compile((String) paths.get(i).get("urlPattern")).matcher(pathName).find()) {
+          matches.add(i);
+        }
+      }
+      double lastIndex = -1;
+      while (matches.size() > 1) {
+        List<Integer> newMatches = new ArrayList<Integer>();
+        double nextIndex = -1;
+        for (Integer match : matches) {
+          String[] segments = ((String) paths.get(match).get("path")).split("/", -1);
+          double newIndex = Double.POSITIVE_INFINITY;
+          for (int i = 0; i < segments.length; i++) {
+            if (segments[i].startsWith("{") && segments[i].endsWith("}")) {
+              newIndex = i;
+              break;
+            }
+          }
+          if (newIndex > nextIndex) {
+            nextIndex = newIndex;
+            newMatches = new ArrayList<Integer>(Collections.singletonList(match));
+          } else if (newIndex == nextIndex) {
+            newMatches.add(match);
+          }
+        }
+        matches = newMatches;
+        if (lastIndex == nextIndex) {
+          if (method != null) {
+            int first = 0;
+            while (first < matches.size() && !supports(matches.get(first), method.toLowerCase())) {
+              first++;
+            }
+            if (first < matches.size()) {
+              matches = matches.subList(first, matches.size());
+            }
+          }
+          matches = matches.subList(0, 1);
+        }
+        lastIndex = nextIndex;
+      }
+      return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Transcription of the getOperationAdapterPath function of the operation adapter.
+     */
+    @SuppressWarnings("unchecked")
+    Integer getOperationAdapterPath(String pathName, String method) {
+      String[] segments = pathName.substring(1).split("/", -1);
+      Set<Integer> matches = new TreeSet<Integer>();
+      visit(0, segments, segments.length, matches);
+      if (segments[segments.length - 1].isEmpty()) {
+        visit(0, segments, segments.length - 1, matches);
+      }
+      for (Integer fallbackPath : (List<Integer>) index.get("fallbackPaths")) {
+        if (Pattern.compile((String) paths.get(fallbackPath).get("urlPattern")).matcher(pathName).find()) {
+          matches.add(fallbackPath);
+        }
+      }
+
+      List<String> specificities = (List<String>) index.get("specificities");
+      double specificity = Double.NEGATIVE_INFINITY;
+      for (Integer match : matches) {
+        specificity = Math.max(specificity, Double.parseDouble(specificities.get(match)));
+      }
+      List<Integer> candidates = new ArrayList<Integer>();
+      for (Integer match : matches) {
+        if (Double.parseDouble(specificities.get(match)) == specificity) {
+          candidates.add(match);
+        }
+      }
+      if (method != null) {
+        for (Integer candidate : candidates) {
+          if (supports(candidate, method.toLowerCase())) {
+            return candidate;
+          }
+        }
+      }
+      return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visit(int nodeIndex, String[] segments, int end, Set<Integer> matches) {
+      Map<String, Object> node = ((List<Map<String, Object>>) index.get("nodes")).get(nodeIndex);
+      matches.addAll((List<Integer>) node.get("paths"));
+      if (end > 0) {
+        String segment = segments[end - 1];
+        for (Map<String, Object> child : (List<Map<String, Object>>) node.get("segments")) {
+          if (segment.equals(child.get("segment"))) {
+            visit((Integer) child.get("node"), segments, end - 1, matches);
+          }
+        }
+        if (node.get("parameter") != null && !segment.isEmpty()) {
+          visit((Integer) node.get("parameter"), segments, end - 1, matches);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean supports(int path, String method) {
+      for (Map<String, String> operation : (List<Map<String, String>>) paths.get(path).get("operations")) {
+        if (method.equals(operation.get("method"))) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the literal prefilter of the {@link OverwriteRules.FilePathPattern}s does not change the result of the
+ * regular expressions.
+ */
+class OverwriteRulesTest {
+
+  /** Expressions using the constructs the literal extraction has to handle, each with paths it matches */
+  private static final String[][] EXPRESSIONS = {
+    // lookbehinds and lookaheads
+    {".*(\\/|\\\\)models(\\/|\\\\)(\\/|\\\\|\\w)*(?<!index)\\.ts$", "/out/src/models/base/pet.ts", "C:\\out\\models\\pet.ts"},
+    {".*/src/(?<!test/)models/.*\\.ts$", "/out/src/models/pet.ts"},
+    {".*foo(?<=o)bar\\.ts$", "/foobar.ts"},
+    {".*/(?!index)\\w+\\.ts$", "/out/pet.ts"},
+    // groups and quantifiers
+    {".*/(api|models)+/.*\\.ts$", "/out/api/models/pet.ts"},
+    {".*/ab(cd)?ef\\.ts$", "/abef.ts", "/abcdef.ts"},
+    {".*/a(bc){2}d\\.ts$", "/abcbcd.ts"},
+    {".*/x(y|z)*\\.ts$", "/x.ts", "/xyzy.ts"},
+    {".*/ab+c\\.ts$", "/abbbc.ts"},
+    {".*/ab*?c$", "/ac", "/abbc"},
+    {".*/ab{1,3}c$", "/abbbc"},
+    {".*/ab?c\\.ts$", "/ac.ts", "/abc.ts"},
+    {".*/ab{2}$", "/abb"},
+    {".*/a.b\\.ts$", "/axb.ts", "/a.b.ts"},
+    // quoted sequences
+    {".*\\Q/src/a.b\\E.*\\.ts$", "/out/src/a.b/pet.ts"},
+    {".*\\Qa+b\\E\\.ts$", "/a+b.ts"},
+    // top level alternations
+    {".*\\.ts$|.*\\.js$", "/pet.ts", "/pet.js"},
+    {"abc|.*/def\\.ts", "abc", "/out/def.ts"},
+    // character classes
+    {".*/[ab]c\\.ts$", "/ac.ts", "/bc.ts"},
+    {".*/[^/]*\\.spec\\.ts$", "/out/pet.spec.ts"},
+    {".*/[]a]x\\.ts$", "/]x.ts", "/ax.ts"},
+    {".*/[^]a]x\\.ts$", "/bx.ts"},
+    {".*/[\\]]x$", "/]x"},
+    {".*/[a-z&&[^b]]y$", "/ay"},
+    {".*[.]ts$", "/pet.ts"},
+    {".*/[|]x$", "/|x"},
+    // escapes
+    {".*\\\\models\\\\.*", "C:\\out\\models\\pet.ts"},
+    {".*\\d+\\.ts$", "/pet1.ts"},
+    {".*\\x41\\.ts$", "/A.ts"},
+    {".*\\p{Lu}x$", "/Ax"},
+    {".*/\\$x\\.ts$", "/$x.ts"},
+    {".*(a)\\1\\.ts$", "/aa.ts"},
+    // embedded flags
+    {"(?i).*\\.TS$", "/pet.ts"},
+    {".*(?i:PET)\\.ts$", "/pet.ts"},
+    // characters outside of the basic multilingual plane
+    {".*/a\uD83D\uDE00?b\\.ts$", "/ab.ts", "/a\uD83D\uDE00b.ts"},
+    {".*/a\uD83D\uDE00+b$", "/a\uD83D\uDE00\uD83D\uDE00b"}
+  };
+
+  /** Pieces of the random paths, with the literals of the expressions */
+  private static final String[] PIECES = {"/", "/", "\\", "C:", "out", "src", "models", "base", "api", "index", "pet",
+    ".ts", ".spec.ts", ".js", ".", "a", "b", "c", "d", "x", "y", "z", "ab", "bc", "cd", "ef", "foo", "bar", "+", "$", "]",
+    "|", "A", "1", "test/", "\uD83D\uDE00", "\uD83D", "PET", ".TS"};
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void matchesTheExpressionsWithTheirPaths() {
+    for (String[] expression : EXPRESSIONS) {
+      OverwriteRules.FilePathPattern pattern = new OverwriteRules.FilePathPattern(expression[0]);
+      for (int i = 1; i < expression.length; i++) {
+        assertTrue(Pattern.compile(expression[0]).matcher(expression[i]).matches(), expression[0] + " on " + expression[i]);
+        assertTrue(pattern.matches(expression[i]), expression[0] + " on " + expression[i]);
+      }
+    }
+  }
+
+  @Test
+  void matchesAsTheRegularExpressions() {
+    List<String> expressions = new ArrayList<String>();
+    List<String> paths = new ArrayList<String>();
+    for (String[] expression : EXPRESSIONS) {
+      expressions.add(expression[0]);
+      paths.addAll(Arrays.asList(expression).subList(1, expression.length));
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      paths.add(randomPath(random));
+    }
+    assertSameMatches(expressions, paths);
+  }
+
+  @Test
+  void matchesAsTheRegularExpressionsOfTheGenerator() throws IOException {
+    File spec = TestGenerations.copySpec("revivers.yaml", new File(tempDir, "spec.yaml"));
+    File outputDir = new File(tempDir, "sdk");
+    AbstractTypeScriptClientCodegen codegen = TestGenerations.generate(spec, outputDir);
+    List<String> expressions = new ArrayList<String>(codegen.overwriteFilepathPatterns);
+    expressions.addAll(codegen.skipOverwriteFilepathPatterns);
+    assertTrue(expressions.size() > 10);
+
+    List<String> paths = new ArrayList<String>();
+    for (String path : TestGenerations.readFiles(outputDir).keySet()) {
+      String unixPath = outputDir.getAbsolutePath().replace('\\', '/') + '/' + path;
+      paths.add(unixPath);
+      paths.add("C:" + unixPath.replace('/', '\\'));
+      paths.add(unixPath.replace(".ts", ".spec.ts"));
+      paths.add(unixPath.replace(".ts", "/index.ts"));
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      paths.add(randomPath(random));
+    }
+    assertSameMatches(expressions, paths);
+  }
+
+  private static void assertSameMatches(List<String> expressions, List<String> paths) {
+    for (String expression : expressions) {
+      OverwriteRules.FilePathPattern pattern = new OverwriteRules.FilePathPattern(expression);
+      Pattern regex = Pattern.compile(expression);
+      for (String path : paths) {
+        assertEquals(regex.matcher(path).matches(), pattern.matches(path), expression + " on " + path);
+      }
+    }
+  }
+
+  private static String randomPath(Random random) {
+    StringBuilder path = new StringBuilder();
+    int pieceCount = 1 + random.nextInt(8);
+    for (int i = 0; i < pieceCount; i++) {
+      path.append(PIECES[random.nextInt(PIECES.length)]);
+    }
+    return path.toString();
+  }
+}
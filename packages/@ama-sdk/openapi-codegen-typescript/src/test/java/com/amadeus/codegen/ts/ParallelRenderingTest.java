@@ -0,0 +1,55 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the parallel rendering of the model and API files produces the same files as the serial rendering.
+ */
+class ParallelRenderingTest {
+
+  private static final String[] COUNTERS = {"filesGenerated", "filesNotGenerated", "filesSkipped"};
+
+  @TempDir
+  File tempDir;
+
+  @Test
+  void rendersTheSameFilesAsTheSerialRendering() throws IOException {
+    File spec = TestGenerations.copySpec("revivers.yaml", new File(tempDir, "spec.yaml"));
+    File serialOutputDir = new File(tempDir, "serial");
+    File parallelOutputDir = new File(tempDir, "parallel");
+    AbstractTypeScriptClientCodegen serial = TestGenerations.generate(spec, serialOutputDir, "stringifyDate=false", "perModelRevivers");
+    AbstractTypeScriptClientCodegen parallel = TestGenerations.generate(spec, parallelOutputDir, "stringifyDate=false", "perModelRevivers",
+      "parallelRendering=4");
+
+    assertEquals(4, parallel.getRenderingThreads());
+    assertEquals(TestGenerations.readFiles(serialOutputDir), TestGenerations.readFiles(parallelOutputDir));
+    assertTrue(serial.getGenerationMetrics().getCounter("filesGenerated") > 0);
+    for (String counter : COUNTERS) {
+      assertEquals(serial.getGenerationMetrics().getCounter(counter), parallel.getGenerationMetrics().getCounter(counter), counter);
+    }
+  }
+
+  @Test
+  void countsTheSkippedFilesOfTheIncrementalGeneration() throws IOException {
+    File spec = TestGenerations.copySpec("revivers.yaml", new File(tempDir, "spec.yaml"));
+    File serialOutputDir = new File(tempDir, "serial");
+    File parallelOutputDir = new File(tempDir, "parallel");
+    TestGenerations.generate(spec, serialOutputDir, "incrementalGeneration");
+    TestGenerations.generate(spec, parallelOutputDir, "incrementalGeneration", "parallelRendering=4");
+    AbstractTypeScriptClientCodegen serial = TestGenerations.generate(spec, serialOutputDir, "incrementalGeneration");
+    AbstractTypeScriptClientCodegen parallel = TestGenerations.generate(spec, parallelOutputDir, "incrementalGeneration", "parallelRendering=4");
+
+    assertEquals(TestGenerations.readFiles(serialOutputDir), TestGenerations.readFiles(parallelOutputDir));
+    assertTrue(serial.getGenerationMetrics().getCounter("filesSkipped") > 0);
+    for (String counter : COUNTERS) {
+      assertEquals(serial.getGenerationMetrics().getCounter(counter), parallel.getGenerationMetrics().getCounter(counter), counter);
+    }
+  }
+}
@@ -0,0 +1,332 @@
+package com.amadeus.codegen.ts;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the regular expressions compiled by the generator (see {@link RegexPatterns}).
+ *
+ * Scans the bytecode of the generator classes for the calls compiling a regular expression at each call:
+ * Pattern.compile and Pattern.matches, and the String methods compiling their regexp (matches, replaceAll,
+ * replaceFirst, and split unless its separator is a literal handled without regexp by the JDK). The static
+ * initializers and the main methods are called once and can compile their patterns; the other calls have to be listed
+ * in {@link #ALLOWED_CALLS}.
+ */
+class RegexCompilationTest {
+
+  private static final String PACKAGE_PATH = "com/amadeus/codegen/ts/";
+
+  /** Methods compiling a regexp, as owner.name */
+  private static final Set<String> COMPILING_METHODS = new HashSet<String>(Arrays.asList(
+    "java/util/regex/Pattern.compile", "java/util/regex/Pattern.matches",
+    "java/lang/String.matches", "java/lang/String.replaceAll", "java/lang/String.replaceFirst", "java/lang/String.split"));
+
+  /** Methods called once per generation or per JVM, which can compile their patterns */
+  private static final Set<String> ONCE_METHODS = new HashSet<String>(Arrays.asList("<clinit>", "main"));
+
+  /** Calls allowed to compile a regexp, as reported by the scan: calling method, called method and literal regexp if any */
+  private static final List<String> ALLOWED_CALLS = Arrays.asList(
+    // regexp specific to an import name, fallback for the unusual import layouts
+    "com.amadeus.codegen.ts.LambdaHelper$RemoveUnusedImports.removeImport calls java.util.regex.Pattern.compile",
+    // treeShaking option, split once per generation
+    "com.amadeus.codegen.ts.AbstractTypeScriptClientCodegen.<init> calls java.lang.String.split with \"\\s*:\\s*\"",
+    // lambdas created once per generation by the codegen constructor, with the regexp of their parameters
+    "com.amadeus.codegen.ts.LambdaHelper$CleanEmptyImportExportLambda.<init> calls java.util.regex.Pattern.compile",
+    "com.amadeus.codegen.ts.LambdaHelper$RemoveDuplicate.<init> calls java.util.regex.Pattern.compile",
+    "com.amadeus.codegen.ts.LambdaHelper$RemoveDuplicateParams.<init> calls java.util.regex.Pattern.compile",
+    "com.amadeus.codegen.ts.LambdaHelper$RemoveEndText.<init> calls java.util.regex.Pattern.compile",
+    // patterns compiled once per set of overwrite rules (see OverwriteRules#compile(List))
+    "com.amadeus.codegen.ts.OverwriteRules$FilePathPattern.<init> calls java.util.regex.Pattern.compile");
+
+  /** Characters which cannot be the single character separator of the split without regexp */
+  private static final String SPLIT_SPECIAL_CHARACTERS = ".$|()[{^?*+\\";
+
+  @Test
+  void compilesTheRegularExpressionsOnlyAtTheInitializations() throws IOException, URISyntaxException {
+    File location = new File(AbstractTypeScriptClientCodegen.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    List<String> calls = new ArrayList<String>();
+    for (byte[] classFile : readClasses(location).values()) {
+      new ClassScanner(classFile).scan(calls);
+    }
+    for (String allowedCall : ALLOWED_CALLS) {
+      assertTrue(calls.remove(allowedCall), "allowed call not found, remove it from the list: " + allowedCall);
+    }
+    assertEquals(Collections.emptyList(), calls,
+      "calls compiling a regular expression outside of the initializations, use a precompiled pattern (see RegexPatterns)");
+  }
+
+  @Test
+  void reportsTheCallsCompilingARegularExpression() throws IOException {
+    List<String> calls = new ArrayList<String>();
+    try (InputStream input = RegexCompilationTest.class.getResourceAsStream("RegexCompilationTest$Compilations.class")) {
+      new ClassScanner(readAll(input)).scan(calls);
+    }
+    String prefix = Compilations.class.getName() + '.';
+    assertEquals(Arrays.asList(
+      prefix + "matches calls java.lang.String.matches with \"[a-z]+\"",
+      prefix + "matches calls java.util.regex.Pattern.compile",
+      prefix + "split calls java.lang.String.split with \"\\s+\"",
+      prefix + "split calls java.lang.String.split with \".\"",
+      prefix + "split calls java.lang.String.split"), calls);
+  }
+
+  @Test
+  void detectsTheSplitsWithoutRegularExpression() {
+    for (String separator : new String[] {",", "/", ":", "\\.", "\\|", "\\$"}) {
+      assertTrue(isSplitFastPath(separator), separator);
+    }
+    for (String separator : new String[] {".", "|", "$", "\\s", "\\d", ", ", "\\s*:\\s*"}) {
+      assertFalse(isSplitFastPath(separator), separator);
+    }
+  }
+
+  /**
+   * @return the class files of the generator package, by name
+   */
+  private static Map<String, byte[]> readClasses(File location) throws IOException {
+    Map<String, byte[]> classes = new TreeMap<String, byte[]>();
+    try (Stream<Path> files = Files.walk(new File(location, PACKAGE_PATH).toPath())) {
+      for (Path file : files.filter(file -> file.toString().endsWith(".class")).collect(Collectors.toList())) {
+        classes.put(file.toString(), Files.readAllBytes(file));
+      }
+    }
+    return classes;
+  }
+
+  private static byte[] readAll(InputStream input) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = input.read(buffer)) > 0) {
+      output.write(buffer, 0, read);
+    }
+    return output.toByteArray();
+  }
+
+  /**
+   * @param separator the literal separator of a split
+   * @return true if the JDK splits on this separator without compiling a regexp
+   */
+  private static boolean isSplitFastPath(String separator) {
+    if (separator.length() == 1) {
+      return SPLIT_SPECIAL_CHARACTERS.indexOf(separator.charAt(0)) < 0;
+    }
+    return separator.length() == 2 && separator.charAt(0) == '\\' && !Character.isLetterOrDigit(separator.charAt(1));
+  }
+
+  /**
+   * Minimal class file reader: constant pool and code of the methods.
+   */
+  private static final class ClassScanner {
+
+    private final DataInputStream input;
+
+    private Object[] constants;
+
+    private int[][] references;
+
+    private String className;
+
+    private ClassScanner(byte[] classFile) {
+      this.input = new DataInputStream(new ByteArrayInputStream(classFile));
+    }
+
+    private void scan(List<String> calls) throws IOException {
+      input.readInt();
+      input.readUnsignedShort();
+      input.readUnsignedShort();
+      readConstantPool();
+      input.readUnsignedShort();
+      className = getClassName(input.readUnsignedShort()).replace('/', '.');
+      input.readUnsignedShort();
+      int interfaceCount = input.readUnsignedShort();
+      for (int i = 0; i < interfaceCount; i++) {
+        input.readUnsignedShort();
+      }
+      int fieldCount = input.readUnsignedShort();
+      for (int i = 0; i < fieldCount; i++) {
+        input.readUnsignedShort();
+        input.readUnsignedShort();
+        input.readUnsignedShort();
+        skipAttributes();
+      }
+      int methodCount = input.readUnsignedShort();
+      for (int i = 0; i < methodCount; i++) {
+        input.readUnsignedShort();
+        String methodName = (String) constants[input.readUnsignedShort()];
+        input.readUnsignedShort();
+        int attributeCount = input.readUnsignedShort();
+        for (int j = 0; j < attributeCount; j++) {
+          String attributeName = (String) constants[input.readUnsignedShort()];
+          int length = input.readInt();
+          if (!"Code".equals(attributeName)) {
+            input.skipBytes(length);
+            continue;
+          }
+          input.readUnsignedShort();
+          input.readUnsignedShort();
+          byte[] code = new byte[input.readInt()];
+          input.readFully(code);
+          input.skipBytes(length - 8 - code.length);
+          if (!ONCE_METHODS.contains(methodName)) {
+            scanCode(methodName, code, calls);
+          }
+        }
+      }
+    }
+
+    private void readConstantPool() throws IOException {
+      int count = input.readUnsignedShort();
+      constants = new Object[count];
+      references = new int[count][];
+      for (int i = 1; i < count; i++) {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+          case 1:
+            constants[i] = input.readUTF();
+            break;
+          case 7: case 8: case 16: case 19: case 20:
+            references[i] = new int[] {tag, input.readUnsignedShort()};
+            break;
+          case 9: case 10: case 11: case 12: case 17: case 18:
+            references[i] = new int[] {tag, input.readUnsignedShort(), input.readUnsignedShort()};
+            break;
+          case 3: case 4:
+            input.readInt();
+            break;
+          case 5: case 6:
+            input.readLong();
+            i++;
+            break;
+          case 15:
+            input.readUnsignedByte();
+            input.readUnsignedShort();
+            break;
+          default:
+            throw new IOException("Unknown constant pool tag " + tag);
+        }
+      }
+    }
+
+    private void skipAttributes() throws IOException {
+      int attributeCount = input.readUnsignedShort();
+      for (int i = 0; i < attributeCount; i++) {
+        input.readUnsignedShort();
+        input.skipBytes(input.readInt());
+      }
+    }
+
+    private String getClassName(int classIndex) {
+      return (String) constants[references[classIndex][1]];
+    }
+
+    /**
+     * @return the string literal of a ldc instruction, null for the other constants
+     */
+    private String getString(int index) {
+      return references[index] != null && references[index][0] == 8 ? (String) constants[references[index][1]] : null;
+    }
+
+    private void scanCode(String methodName, byte[] code, List<String> calls) {
+      // string literal pushed by the previous instructions, only followed by int constants (e.g. the limit of a split)
+      String lastString = null;
+      int offset = 0;
+      while (offset < code.length) {
+        int opcode = code[offset] & 0xff;
+        if (opcode == 0xb6 || opcode == 0xb8) {
+          int[] method = references[readShort(code, offset + 1)];
+          int[] nameAndType = references[method[2]];
+          String calledMethod = getClassName(method[1]) + '.' + constants[nameAndType[1]];
+          if (COMPILING_METHODS.contains(calledMethod)
+            && !("java/lang/String.split".equals(calledMethod) && lastString != null && isSplitFastPath(lastString))) {
+            calls.add(className + '.' + methodName + " calls " + calledMethod.replace('/', '.')
+              + (lastString != null ? " with \"" + lastString + '"' : ""));
+          }
+        }
+        if (opcode == 0x12) {
+          lastString = getString(code[offset + 1] & 0xff);
+        } else if (opcode == 0x13) {
+          lastString = getString(readShort(code, offset + 1));
+        } else if (!(opcode >= 0x02 && opcode <= 0x08) && opcode != 0x10 && opcode != 0x11) {
+          lastString = null;
+        }
+        offset += getInstructionLength(code, offset);
+      }
+    }
+
+    private static int readShort(byte[] code, int offset) {
+      return ((code[offset] & 0xff) << 8) | (code[offset + 1] & 0xff);
+    }
+
+    private static int readInt(byte[] code, int offset) {
+      return (readShort(code, offset) << 16) | readShort(code, offset + 2);
+    }
+
+    private static int getInstructionLength(byte[] code, int offset) {
+      int opcode = code[offset] & 0xff;
+      switch (opcode) {
+        case 0x10: case 0x12: case 0xa9: case 0xbc:
+          return 2;
+        case 0x11: case 0x13: case 0x14: case 0x84: case 0xb2: case 0xb3: case 0xb4: case 0xb5: case 0xb6: case 0xb7:
+        case 0xb8: case 0xbb: case 0xbd: case 0xc0: case 0xc1: case 0xc6: case 0xc7:
+          return 3;
+        case 0xc5:
+          return 4;
+        case 0xb9: case 0xba: case 0xc8: case 0xc9:
+          return 5;
+        case 0xc4:
+          return (code[offset + 1] & 0xff) == 0x84 ? 6 : 4;
+        case 0xaa: {
+          int padded = (offset + 4) & ~3;
+          int low = readInt(code, padded + 4);
+          int high = readInt(code, padded + 8);
+          return padded - offset + 12 + 4 * (high - low + 1);
+        }
+        case 0xab: {
+          int padded = (offset + 4) & ~3;
+          return padded - offset + 8 + 8 * readInt(code, padded + 4);
+        }
+        default:
+          if ((opcode >= 0x15 && opcode <= 0x19) || (opcode >= 0x36 && opcode <= 0x3a)) {
+            return 2;
+          }
+          return opcode >= 0x99 && opcode <= 0xa8 ? 3 : 1;
+      }
+    }
+  }
+
+  /**
+   * Calls scanned by {@link #reportsTheCallsCompilingARegularExpression()}.
+   */
+  @SuppressWarnings("unused")
+  private static final class Compilations {
+
+    private static final Pattern WORD = Pattern.compile("\\w+");
+
+    private static boolean matches(String value) {
+      return value.matches("[a-z]+") || Pattern.compile(value).matcher("abc").find() || WORD.matcher(value).matches();
+    }
+
+    private static int split(String value) {
+      return value.split("\\s+").length + value.split(".").length + value.split(value).length + value.split(",").length
+        + value.split("/", -1).length + value.split("\\.").length + value.replace(".", "/").length();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.amadeus.codegen.ts;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the single pass {@link LambdaHelper.RemoveUnusedImports} against the regexp based implementation it replaced.
+ */
+class RemoveUnusedImportsTest {
+
+  private static final String[] NAMES = {"Pet", "Category", "Tag", "PetStatus", "Order", "User", "Api", "Date", "type"};
+
+  private static final String[] SEPARATORS = {", ", ",", " , ", ",  ", " ,", ",\t"};
+
+  private static final String[] LINE_BREAKS = {"\n", "\n", "\n", "\n", "\r\n", "\r"};
+
+  private final LambdaHelper.RemoveUnusedImports lambda = new LambdaHelper.RemoveUnusedImports();
+
+  @Test
+  void removesTheUnusedNames() {
+    String fragment = "import { Category, Tag, Pet } from '../../models/base';\n"
+      + "import type { Order } from '../order';\n"
+      + "import { User } from '../user';\n"
+      + "\n"
+      + "export interface Pet {\n"
+      + "  category?: Category;\n"
+      + "  /**\n"
+      + "   * see Tag\n"
+      + "   */\n"
+      + "  orders: Order[];\n"
+      + "}\n";
+    // the whitespace preceding the removed name is kept, as by the regexp implementation
+    String expected = "import { Category,  Pet } from '../../models/base';\n"
+      + "import type { Order } from '../order';\n"
+      + "\n"
+      + "export interface Pet {\n"
+      + "  category?: Category;\n"
+      + "  /**\n"
+      + "   * see Tag\n"
+      + "   */\n"
+      + "  orders: Order[];\n"
+      + "}\n";
+    assertEquals(expected, lambda.formatFragment(fragment));
+  }
+
+  @Test
+  void ignoresTheQuotedNamesAndTheModulePaths() {
+    String fragment = "import { Pet, Tag } from './pet';\nconst name = 'Pet';\nconst path = Tag/index;\n";
+    assertEquals("const name = 'Pet';\nconst path = Tag/index;\n", lambda.formatFragment(fragment));
+  }
+
+  @Test
+  void keepsTheFragmentsWithoutImport() {
+    String fragment = "export type Pet = string;\n";
+    assertEquals(fragment, lambda.formatFragment(fragment));
+  }
+
+  @Test
+  void matchesTheRegexpImplementation() {
+    Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      String fragment = randomFragment(random);
+      assertEquals(removeUnusedImportsWithRegexps(fragment), lambda.formatFragment(fragment), fragment);
+    }
+  }
+
+  private static String randomFragment(Random random) {
+    StringBuilder fragment = new StringBuilder();
+    int lineCount = 1 + random.nextInt(10);
+    for (int i = 0; i < lineCount; i++) {
+      switch (random.nextInt(6)) {
+        case 0:
+        case 1:
+          fragment.append(randomImport(random));
+          break;
+        case 2:
+          fragment.append("import {").append(pick(random, LINE_BREAKS)).append("  ").append(pick(random, NAMES)).append(',');
+          break;
+        case 3:
+          fragment.append(pick(random, new String[] {" * ", "/* ", "// ", "  *"})).append(pick(random, NAMES));
+          break;
+        default:
+          fragment.append(randomCode(random));
+      }
+      if (i < lineCount - 1 || random.nextBoolean()) {
+        fragment.append(pick(random, LINE_BREAKS));
+      }
+    }
+    return fragment.toString();
+  }
+
+  private static String randomImport(Random random) {
+    StringBuilder line = new StringBuilder(random.nextInt(4) == 0 ? "  " : "");
+    line.append("import ").append(random.nextInt(3) == 0 ? "type " : "").append('{').append(random.nextBoolean() ? " " : "");
+    int nameCount = random.nextInt(4);
+    for (int i = 0; i < nameCount; i++) {
+      if (i > 0) {
+        line.append(pick(random, SEPARATORS));
+      }
+      line.append(random.nextInt(5) == 0 ? "type " : "").append(pick(random, NAMES));
+    }
+    if (nameCount > 0 && random.nextInt(4) == 0) {
+      line.append(',');
+    }
+    return line.append(random.nextBoolean() ? " " : "").append("} from './").append(pick(random, NAMES).toLowerCase()).append("';").toString();
+  }
+
+  private static String randomCode(Random random) {
+    StringBuilder line = new StringBuilder(random.nextBoolean() ? "  " : "");
+    int tokenCount = random.nextInt(4);
+    for (int i = 0; i < tokenCount; i++) {
+      String name = pick(random, NAMES);
+      switch (random.nextInt(8)) {
+        case 0:
+          line.append('\'').append(name).append('\'');
+          break;
+        case 1:
+          line.append('"').append(name).append('"');
+          break;
+        case 2:
+          line.append(name).append('/');
+          break;
+        case 3:
+          line.append("revive").append(name);
+          break;
+        case 4:
+          line.append(name).append("[]");
+          break;
+        default:
+          line.append(name).append(random.nextBoolean() ? ": " : "(");
+      }
+      line.append(random.nextBoolean() ? " " : "");
+    }
+    return line.toString();
+  }
+
+  private static String pick(Random random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  /**
+   * Previous implementation of the lambda, compiling a regexp per imported name.
+   */
+  private static String removeUnusedImportsWithRegexps(String fragment) {
+    List<String> allMatches = new ArrayList<String>();
+    Matcher importLinesMatcher = Pattern.compile("import\\s+(?:type\\s+)?\\{(.*)}.*;").matcher(fragment);
+    while (importLinesMatcher.find()) {
+      Matcher importsMatcher = Pattern.compile("((?:type\\s+)?\\w+)").matcher(importLinesMatcher.group(1));
+      while (importsMatcher.find()) {
+        allMatches.add(importsMatcher.group(1));
+      }
+    }
+    for (String importedClass : allMatches) {
+      Matcher importTypeMatcher = Pattern.compile("(type\\s+)").matcher(importedClass);
+      if (importTypeMatcher.find()) {
+        importedClass = importTypeMatcher.replaceAll("");
+      }
+      Matcher usageMatcher = Pattern.compile(
+        "^(?!(\\s*import\\s+(?:type\\s+)?\\{)|(\\s*\\*)|(/\\*))(?:.*[^\\w'\"])?" + importedClass + "[^\\w\\/]",
+        Pattern.MULTILINE
+      ).matcher(fragment);
+      if (!usageMatcher.find()) {
+        fragment = Pattern.compile("(.*import\\s+(?:type\\s+)?\\{(?:.*\\W)?)(?:type\\s+)?" + importedClass + "\\s*,?\\s*(\\W.*)")
+          .matcher(fragment)
+          .replaceAll("$1$2");
+      }
+    }
+    return Pattern.compile("import\\s+(?:type\\s+)?\\{(\\s,?)*}\\s+from\\s+.*;\n").matcher(fragment).replaceAll("");
+  }
+}
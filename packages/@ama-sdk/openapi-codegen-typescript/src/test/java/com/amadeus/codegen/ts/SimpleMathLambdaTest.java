@@ -0,0 +1,89 @@
+package com.amadeus.codegen.ts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the {@link LambdaHelper.SimpleMathLambda} evaluator against the results of the JavaScript evaluation it
+ * replaced (String(eval(expression)), as computed by node).
+ */
+class SimpleMathLambdaTest {
+
+  private static final String INVALID_MATH = "Invalid Math";
+
+  private final LambdaHelper.SimpleMathLambda lambda = new LambdaHelper.SimpleMathLambda();
+
+  @Test
+  void evaluatesAsJavaScript() {
+    String[][] cases = {
+      {"1 + 1", "2"},
+      {"10 - 4 * 2", "2"},
+      {"(10 - 4) * 2", "12"},
+      {"7 / 2", "3.5"},
+      {"1 / 3", "0.3333333333333333"},
+      {"0.1 + 0.2", "0.30000000000000004"},
+      {"7 % 3", "1"},
+      {"-7 % 3", "-1"},
+      {"5.5 % 2", "1.5"},
+      {"-(3)", "-3"},
+      {"- -2", "2"},
+      {"+4", "4"},
+      {" 2 * ( 3 + 4 ) ", "14"},
+      {"1 / 0", "Infinity"},
+      {"-1 / 0", "-Infinity"},
+      {"0 / 0", "NaN"},
+      {"0 * -1", "0"},
+      {"100 / 3", "33.333333333333336"},
+      {"2 / 3 * 3", "2"},
+      {"3 - 2.9", "0.10000000000000009"},
+      {"5.", "5"},
+      {".5", "0.5"},
+      {"0.000001234", "0.000001234"}
+    };
+    assertResults(cases);
+  }
+
+  @Test
+  void readsTheExponentLiterals() {
+    String[][] cases = {
+      {"1e3", "1000"},
+      {"1.5e-7", "1.5e-7"},
+      {"2.5E+3 * 2", "5000"},
+      {"1e21", "1e+21"},
+      {"1e-6", "0.000001"},
+      {"1e-7", "1e-7"}
+    };
+    assertResults(cases);
+  }
+
+  @Test
+  void formatsTheIntegersBeyondTheDoublePrecisionAsJavaScript() {
+    String[][] cases = {
+      {"2 * 4503599627370496", "9007199254740992"},
+      {"9007199254740993", "9007199254740992"},
+      {"4 * 9007199254740992", "36028797018963970"},
+      {"3 * 9007199254740992 + 1", "27021597764222976"},
+      {"8 * 4503599627370496 + 8", "36028797018963976"},
+      {"123456789 * 1000000000000", "123456789000000000000"},
+      {"99999999999999999999", "100000000000000000000"}
+    };
+    assertResults(cases);
+  }
+
+  @Test
+  void rejectsTheInvalidExpressions() {
+    String[] expressions = {"", "1 +", "(2", "2)", "1e", "1e+", "abc", "1 2", "0x10", "2 ** 3", "--2", "1--2", "1 ++2"};
+    for (String expression : expressions) {
+      assertEquals(INVALID_MATH, lambda.formatFragment(expression), expression);
+    }
+  }
+
+  private void assertResults(String[][] cases) {
+    for (String[] testCase : cases) {
+      assertEquals(testCase[1], lambda.formatFragment(testCase[0]), testCase[0]);
+      // the second evaluation is served by the cache
+      assertEquals(testCase[1], lambda.formatFragment(testCase[0]), testCase[0]);
+    }
+  }
+}
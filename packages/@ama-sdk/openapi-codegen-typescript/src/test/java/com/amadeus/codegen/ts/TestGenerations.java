@@ -0,0 +1,93 @@
+package com.amadeus.codegen.ts;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.GlobalSettings;
+
+/**
+ * Generations of the test specifications (src/test/resources/specs) with the {@link OtterGenerator}.
+ */
+final class TestGenerations {
+
+  /** Folder of the generator metadata (manifest, report, file list), not compared between generations */
+  private static final String METADATA_FOLDER = ".openapi-generator";
+
+  private TestGenerations() {
+  }
+
+  /**
+   * Copies a test specification, replacing the file of a previous copy.
+   *
+   * @param name the name of the specification in src/test/resources/specs
+   * @param target the copy
+   * @return the copy
+   */
+  static File copySpec(String name, File target) throws IOException {
+    try {
+      Files.copy(new File(TestGenerations.class.getResource("/specs/" + name).toURI()).toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+    return target;
+  }
+
+  /**
+   * Generates the SDK of the specification with the typescriptFetch codegen.
+   *
+   * @param spec the specification
+   * @param outputDir the output directory
+   * @param globalProperties the global properties, as key=value or key (for true)
+   * @return the codegen, to read the metrics of the generation
+   */
+  static AbstractTypeScriptClientCodegen generate(File spec, File outputDir, String... globalProperties) {
+    GlobalSettings.reset();
+    try {
+      CodegenConfigurator configurator = new CodegenConfigurator()
+        .setGeneratorName("typescriptFetch")
+        .setInputSpec(spec.getAbsolutePath())
+        .setOutputDir(outputDir.getAbsolutePath());
+      for (String property : globalProperties) {
+        String[] keyValue = property.split("=", 2);
+        configurator.addGlobalProperty(keyValue[0], keyValue.length > 1 ? keyValue[1] : "true");
+      }
+      ClientOptInput input = configurator.toClientOptInput();
+      AbstractTypeScriptClientCodegen codegen = (AbstractTypeScriptClientCodegen) CachingCodegenConfigurator.getConfig(input);
+      new OtterGenerator().opts(input).generate();
+      return codegen;
+    } finally {
+      GlobalSettings.reset();
+    }
+  }
+
+  /**
+   * @param outputDir the output directory of a generation
+   * @return the content of the generated files by relative path, without the generator metadata
+   */
+  static Map<String, String> readFiles(File outputDir) {
+    Path root = outputDir.toPath();
+    try (Stream<Path> files = Files.walk(root)) {
+      Map<String, String> contents = new TreeMap<String, String>();
+      for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+        if (!path.startsWith(METADATA_FOLDER + '/')) {
+          contents.put(path, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        }
+      }
+      return contents;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package com.amadeus.codegen.ts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the parsing and the array suffix rendering of the {@link TypeExpression}s.
+ */
+class TypeExpressionTest {
+
+  private final TypeExpression.Cache cache = new TypeExpression.Cache();
+
+  @Test
+  void convertsTheNestedArrays() {
+    String[][] cases = {
+      {"Array<Pet>", "Pet[]"},
+      {"Array<Array<string>>", "string[][]"},
+      {"Record<string, Array<Pet>>", "Record<string, Pet[]>"},
+      {"Array<Record<string, Array<Pet>>>", "Record<string, Pet[]>[]"},
+      {"Array<Record<string, Array<Array<models.Pet>>>>", "Record<string, models.Pet[][]>[]"},
+      {"Map<Array<Pet>, Array<Tag>>", "Map<Pet[], Tag[]>"},
+      {"Array<Pet>[]", "Pet[][]"},
+      {"Array<Pet, Tag>", "Array<Pet, Tag>"}
+    };
+    assertConversions(cases);
+  }
+
+  @Test
+  void parenthesizesTheUnionsAndIntersectionsInArrays() {
+    String[][] cases = {
+      {"Array<Cat | Dog>", "(Cat | Dog)[]"},
+      {"Array<Cat & Named>", "(Cat & Named)[]"},
+      {"Array<'available' | 'sold'>", "('available' | 'sold')[]"},
+      {"Array<Array<Cat | Dog>>", "(Cat | Dog)[][]"},
+      {"Array<Cat> | Array<Dog>", "Cat[] | Dog[]"},
+      {"Array<(Cat | Dog) & Named>", "((Cat | Dog) & Named)[]"},
+      {"Record<string, Array<Cat | Dog>>", "Record<string, (Cat | Dog)[]>"}
+    };
+    assertConversions(cases);
+  }
+
+  @Test
+  void normalizesTheWhitespaces() {
+    String[][] cases = {
+      {"Array< Pet >", "Pet[]"},
+      {"Array<Record<string,Array<Pet>>>", "Record<string, Pet[]>[]"},
+      {"Array<  Cat|Dog  >", "(Cat | Dog)[]"},
+      {"Array<\n  Cat\n  | Dog\n>", "(Cat | Dog)[]"},
+      {"Array<Pet> [ ]", "Pet[][]"}
+    };
+    assertConversions(cases);
+  }
+
+  @Test
+  void keepsTheTypesWithoutArrayGeneric() {
+    String[] types = {"Pet", "Pet[]", "Record<string, Pet>", "{ [key: string]: Pet; }", "Cat | Dog"};
+    for (String type : types) {
+      assertEquals(type, cache.toArraySyntax(type), type);
+    }
+  }
+
+  @Test
+  void fallsBackToTheInnermostArrayConversionForTheUnsupportedSyntaxes() {
+    String[][] cases = {
+      // object literal types are not parsed
+      {"Array<{ [key: string]: Pet; }>", "{ [key: string]: Pet; }[]"},
+      {"Array<{ name: string }>", "{ name: string }[]"},
+      {"Record<string, Array<{ id: number }>>", "Record<string, { id: number }[]>"},
+      {"Array<Array<{ id: number }>>", "{ id: number }[][]"},
+      // unbalanced generics
+      {"Array<Pet", "Array<Pet"},
+      {"Array<Pet>>", "Pet[]>"}
+    };
+    assertConversions(cases);
+  }
+
+  @Test
+  void parsesTheTypeExpressions() {
+    TypeExpression expression = TypeExpression.parse("Record<string, Array<Cat | Dog>>");
+    assertEquals(TypeExpression.Kind.GENERIC, expression.getKind());
+    assertEquals("Record", expression.getName());
+    assertEquals(2, expression.getChildren().size());
+    assertEquals(TypeExpression.Kind.NAME, expression.getChildren().get(0).getKind());
+    TypeExpression array = expression.getChildren().get(1);
+    assertEquals(TypeExpression.Kind.ARRAY, array.getKind());
+    assertEquals(TypeExpression.Kind.UNION, array.getChildren().get(0).getKind());
+    assertEquals(2, array.getChildren().get(0).getChildren().size());
+
+    assertEquals(TypeExpression.Kind.INTERSECTION, TypeExpression.parse("A & B").getKind());
+    assertEquals(TypeExpression.Kind.UNION, TypeExpression.parse("A & B | C").getKind());
+    assertEquals("A & (B | C)", TypeExpression.parse("A & (B | C)").toString());
+    assertEquals("\"a|b\"", TypeExpression.parse("\"a|b\"").toString());
+  }
+
+  @Test
+  void rejectsTheUnsupportedSyntaxes() {
+    String[] types = {"", "{ id: number }", "Array<>", "Pet[", "(Pet", "Pet)", "'Pet", "Pet | ", "Pet Tag"};
+    for (String type : types) {
+      assertThrows(IllegalArgumentException.class, () -> TypeExpression.parse(type), type);
+    }
+  }
+
+  @Test
+  void buildsTheArrayAndRecordTypes() {
+    assertEquals("Pet[]", cache.arrayOf("Pet"));
+    assertEquals("(Cat | Dog)[]", cache.arrayOf("Cat | Dog"));
+    assertEquals("(Cat & Named)[]", cache.arrayOf("Cat & Named"));
+    assertEquals("Record<string, Pet>[]", cache.arrayOf("Record<string, Pet>"));
+    assertEquals("{ id: number }[]", cache.arrayOf("{ id: number }"));
+    assertEquals("Record<string, Cat | Dog>", cache.recordOf("Cat | Dog"));
+  }
+
+  private void assertConversions(String[][] cases) {
+    for (String[] testCase : cases) {
+      assertEquals(testCase[1], cache.toArraySyntax(testCase[0]), testCase[0]);
+      // the second conversion is served by the cache
+      assertEquals(testCase[1], cache.toArraySyntax(testCase[0]), testCase[0]);
+    }
+  }
+}